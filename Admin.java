@@ -16,6 +16,9 @@ public class Admin extends Akun {
         System.out.println("3. Edit Barang");
         System.out.println("4. Lihat Barang");
         System.out.println("5. Lihat Transaksi");
-        System.out.println("6. Keluar");
+        System.out.println("6. Edit Massal (harga/stok beberapa barang)");
+        System.out.println("7. Import CSV");
+        System.out.println("8. Export CSV");
+        System.out.println("9. Keluar");
     }
 }
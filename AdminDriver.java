@@ -1,4 +1,7 @@
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 public class AdminDriver extends Driver {
@@ -63,18 +66,18 @@ public class AdminDriver extends Driver {
         Scanner sc = new Scanner(System.in);
         while (true) {
             akun.menu(); // tampilkan menu untuk admin
-            int choice = InputUtils.readIntInRange(sc, 1, 6, "Pilih: ");
+            int choice = InputUtils.readIntInRange(sc, 1, 9, "Pilih: ");
             switch (choice) {
 
                 // ======================= TAMBAH BARANG ==========================
                 case 1:
                     System.out.print("ID Barang (kosong untuk auto-generate): ");
                     String idInput = sc.nextLine().trim();
-                    String id;
+                    String id; // null = ID otomatis, dibuat saat barang disimpan
 
                     // Cek apakah ID sudah dipakai
                     while (true) {
-                        if (idInput.isEmpty()) { id = listBarang.generateId(); break; }
+                        if (idInput.isEmpty()) { id = null; break; }
                         if (listBarang.getBarang(idInput) != null) {
                             System.out.println("ID sudah ada. Masukkan ID lain atau kosong untuk auto-generate.");
                             System.out.print("ID Barang (kosong untuk auto-generate): ");
@@ -91,7 +94,11 @@ public class AdminDriver extends Driver {
                     String deskripsi = sc.nextLine();
                     System.out.print("Brand: ");
                     String brand = sc.nextLine();
-                    listBarang.addBarang(new Barang(id, nama, harga, stok, deskripsi, brand));
+                    if (id == null) id = listBarang.addBarangBaru(nama, harga, stok, deskripsi, brand);
+                    else if (!listBarang.addBarang(new Barang(id, nama, harga, stok, deskripsi, brand))) {
+                        System.out.println("ID " + id + " sudah dipakai. Barang tidak ditambahkan.");
+                        break;
+                    }
                     System.out.println("Barang berhasil ditambahkan. ID = " + id);
                     break;
 
@@ -173,8 +180,86 @@ public class AdminDriver extends Driver {
                     }
                     break;
 
-                // ======================= KELUAR ==========================
+                // ======================= EDIT MASSAL ==========================
+                // Semua perubahan dikumpulkan dalam satu batch -> file hanya ditulis sekali
                 case 6:
+                    System.out.println("1. Ubah harga semua barang satu brand (persen)");
+                    System.out.println("2. Restock beberapa barang");
+                    int mode = InputUtils.readIntInRange(sc, 1, 2, "Pilih: ");
+                    BarangBatch batch = new BarangBatch();
+                    if (mode == 1) {
+                        System.out.print("Brand: ");
+                        String brandMassal = sc.nextLine().trim();
+                        double persen = InputUtils.readDouble(sc, "Perubahan harga (%, mis. 10 atau -5): ");
+                        // Nama brand dicocokkan sekali per kode kamus, lalu tiap barang cukup cek kodenya
+                        boolean[] cocok = new boolean[BrandDictionary.size()];
+                        for (int c = 0; c < cocok.length; c++)
+                            cocok[c] = BrandDictionary.name(c).equalsIgnoreCase(brandMassal);
+                        for (Barang b : listBarang.getBarangList()) {
+                            if (b.getBrandCode() < cocok.length && cocok[b.getBrandCode()])
+                                batch.reprice(b.getId(), Math.round(b.getHarga() * (100 + persen) / 100.0));
+                        }
+                    } else {
+                        System.out.println("Format: ID:jumlah dipisah koma, mis. 01:10, 05:-2");
+                        System.out.print("Restock: ");
+                        for (String part : sc.nextLine().split(",")) {
+                            String[] kv = part.trim().split(":");
+                            if (kv.length != 2) continue;
+                            try {
+                                batch.restock(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+                            } catch (NumberFormatException ex) {
+                                System.out.println("Jumlah tidak valid: " + part.trim());
+                            }
+                        }
+                    }
+                    if (batch.isEmpty()) {
+                        System.out.println("Tidak ada barang yang diubah.");
+                        break;
+                    }
+                    List<String> errors = listBarang.applyBatch(batch);
+                    if (errors.isEmpty()) System.out.println(batch.size() + " perubahan berhasil disimpan.");
+                    else {
+                        System.out.println("Tidak ada yang disimpan:");
+                        for (String err : errors) System.out.println("- " + err);
+                    }
+                    break;
+
+                // ======================= IMPORT CSV ==========================
+                case 7:
+                    System.out.print("File CSV yang akan diimport: ");
+                    File csvIn = new File(sc.nextLine().trim());
+                    if (!csvIn.isFile()) {
+                        System.out.println("File tidak ditemukan.");
+                        break;
+                    }
+                    File rejectFile = new File(csvIn.getPath() + ".reject");
+                    try {
+                        CatalogCsv.Result res = CatalogCsv.importCsv(listBarang, csvIn, rejectFile,
+                                (done, total, ok, rejected) -> System.out.printf("\r%3d%%  %d diimport, %d ditolak",
+                                        total == 0 ? 100 : done * 100 / total, ok, rejected));
+                        System.out.println();
+                        System.out.println("Import selesai: " + res);
+                        if (res.rejected > 0) System.out.println("Baris yang ditolak: " + rejectFile.getPath());
+                        else rejectFile.delete();
+                    } catch (IOException ex) {
+                        System.out.println("Import gagal: " + ex.getMessage());
+                    }
+                    break;
+
+                // ======================= EXPORT CSV ==========================
+                case 8:
+                    System.out.print("Simpan ke file CSV: ");
+                    File csvOut = new File(sc.nextLine().trim());
+                    try {
+                        int n = CatalogCsv.exportCsv(listBarang, csvOut, null);
+                        System.out.println(n + " barang diexport ke " + csvOut.getPath());
+                    } catch (IOException ex) {
+                        System.out.println("Export gagal: " + ex.getMessage());
+                    }
+                    break;
+
+                // ======================= KELUAR ==========================
+                case 9:
                     System.out.println("Keluar ke menu utama.");
                     return;
 
@@ -0,0 +1,264 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// Trie prefiks untuk saran ketik (type-ahead) atas nama dan brand barang.
+// Node disimpan dalam array paralel (label, anak pertama, saudara berikutnya), bukan objek per node.
+// Tiap node besar menyimpan k barang dengan stok terbanyak di bawahnya; cache ini dihitung saat
+// dibutuhkan dari cache anak-anaknya, dibuang saat ada barang masuk/keluar di jalurnya, dan
+// dihitung ulang jika katalog sudah berubah (versi naik, mis. stok terjual) dan umurnya lewat
+// STALE_NANOS -- stok berubah tanpa event, jadi urutan boleh tertinggal sebentar.
+// Semua method synchronized: dipanggil dari thread penulis (event) dan EDT (saran).
+public class AutocompleteIndex implements CatalogListener {
+    public static final int MAX_K = 10;
+    private static final int SMALL = 64;                      // subtree sekecil ini dipindai langsung tanpa cache
+    private static final long STALE_NANOS = 10_000_000_000L;  // batas umur urutan stok di cache
+
+    private char[] label = new char[64];
+    private int[] child = new int[64];      // anak pertama (-1 = tidak ada)
+    private int[] sibling = new int[64];    // saudara berikutnya (-1 = tidak ada)
+    private int[] count = new int[64];      // jumlah entri di subtree (termasuk node ini)
+    private Object[] ends = new Object[64]; // entri yang berakhir di node ini: Barang atau ArrayList<Barang>
+    private Barang[][] top = new Barang[64][];
+    private long[] topAt = new long[64];
+    private long[] topVersion = new long[64];
+    private int nodes;
+
+    private int[] stack = new int[64];      // dipakai ulang saat memindai subtree kecil
+    private final LongSupplier version;     // versi katalog (ListBarang.getVersion)
+
+    AutocompleteIndex(CatalogSnapshot snapshot, LongSupplier version) {
+        this.version = version;
+        rebuild(snapshot.getItems());
+    }
+
+    public synchronized void rebuild(List<Barang> items) {
+        nodes = 0;
+        Arrays.fill(ends, null);
+        Arrays.fill(top, null);
+        newNode('\0');
+        for (Barang b : items) insert(b);
+    }
+
+    // Saran teks untuk prefix: nama barang (jika nama diawali prefix) atau brand-nya,
+    // urut stok terbanyak, tanpa duplikat, maksimal k
+    public synchronized List<String> suggest(String prefix, int k) {
+        if (prefix == null || prefix.isEmpty() || k <= 0) return Collections.emptyList();
+        String p = prefix.toLowerCase(SearchIndex.ID);
+        int node = 0;
+        for (int i = 0; i < p.length() && node >= 0; i++) node = find(node, p.charAt(i));
+        if (node < 0) return Collections.emptyList();
+
+        Barang[] best = top(node);
+        List<String> out = new ArrayList<>(Math.min(k, best.length));
+        for (Barang b : best) {
+            if (out.size() == k) break;
+            String nama = b.getNama();
+            String text = nama != null && nama.regionMatches(true, 0, p, 0, p.length()) ? nama : b.getBrand();
+            if (!out.contains(text)) out.add(text);
+        }
+        return out;
+    }
+
+    public synchronized int size() {
+        return nodes;
+    }
+
+    // ================================
+    //      PERUBAHAN KATALOG
+    // ================================
+
+    @Override
+    public synchronized void barangAdded(Barang b) {
+        insert(b);
+    }
+
+    @Override
+    public synchronized void barangRemoved(Barang b) {
+        delete(b);
+    }
+
+    @Override
+    public synchronized void barangReplaced(Barang old, Barang baru) {
+        delete(old);
+        insert(baru);
+    }
+
+    @Override
+    public synchronized void catalogReloaded(CatalogSnapshot snapshot) {
+        rebuild(snapshot.getItems());
+    }
+
+    // ================================
+    //      STRUKTUR TRIE
+    // ================================
+
+    private void insert(Barang b) {
+        insertKey(key(b.getNama()), b);
+        String brand = key(b.getBrand());
+        if (!brand.equals(key(b.getNama()))) insertKey(brand, b);
+    }
+
+    private void delete(Barang b) {
+        deleteKey(key(b.getNama()), b);
+        String brand = key(b.getBrand());
+        if (!brand.equals(key(b.getNama()))) deleteKey(brand, b);
+    }
+
+    private static String key(String s) {
+        return s == null ? "" : s.trim().toLowerCase(SearchIndex.ID);
+    }
+
+    private void insertKey(String key, Barang b) {
+        if (key.isEmpty()) return;
+        int node = 0;
+        touch(node, 1);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            int next = find(node, c);
+            if (next < 0) {
+                next = newNode(c);
+                sibling[next] = child[node];
+                child[node] = next;
+            }
+            node = next;
+            touch(node, 1);
+        }
+        Object e = ends[node];
+        if (e == null) ends[node] = b;
+        else if (e instanceof Barang) {
+            ArrayList<Barang> list = new ArrayList<>(2);
+            list.add((Barang) e);
+            list.add(b);
+            ends[node] = list;
+        } else {
+            @SuppressWarnings("unchecked")
+            ArrayList<Barang> list = (ArrayList<Barang>) e;
+            list.add(b);
+        }
+    }
+
+    private void deleteKey(String key, Barang b) {
+        if (key.isEmpty()) return;
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) node = find(node, key.charAt(i));
+        if (node < 0) return;
+        Object e = ends[node];
+        if (e == b) ends[node] = null;
+        else if (e instanceof ArrayList) {
+            @SuppressWarnings("unchecked")
+            ArrayList<Barang> list = (ArrayList<Barang>) e;
+            int i = 0;
+            while (i < list.size() && list.get(i) != b) i++;
+            if (i == list.size()) return;
+            list.remove(i);
+            if (list.size() == 1) ends[node] = list.get(0);
+        } else return;
+        // Node yang kosong dibiarkan (tidak ikut saran karena count 0); dibersihkan saat rebuild
+        node = 0;
+        touch(node, -1);
+        for (int i = 0; i < key.length(); i++) {
+            node = find(node, key.charAt(i));
+            touch(node, -1);
+        }
+    }
+
+    // Ubah jumlah entri di subtree dan buang cache-nya
+    private void touch(int node, int delta) {
+        count[node] += delta;
+        top[node] = null;
+    }
+
+    private int find(int node, char c) {
+        for (int n = child[node]; n >= 0; n = sibling[n]) if (label[n] == c) return n;
+        return -1;
+    }
+
+    private int newNode(char c) {
+        if (nodes == label.length) {
+            int cap = nodes * 2;
+            label = Arrays.copyOf(label, cap);
+            child = Arrays.copyOf(child, cap);
+            sibling = Arrays.copyOf(sibling, cap);
+            count = Arrays.copyOf(count, cap);
+            ends = Arrays.copyOf(ends, cap);
+            top = Arrays.copyOf(top, cap);
+            topAt = Arrays.copyOf(topAt, cap);
+            topVersion = Arrays.copyOf(topVersion, cap);
+        }
+        int n = nodes++;
+        label[n] = c;
+        child[n] = -1;
+        sibling[n] = -1;
+        count[n] = 0;
+        return n;
+    }
+
+    // ================================
+    //      K TERATAS PER NODE
+    // ================================
+
+    // MAX_K barang dengan stok terbanyak di subtree node, urut menurun
+    private Barang[] top(int node) {
+        if (count[node] <= SMALL) return scan(node);
+        Barang[] cached = top[node];
+        long now = System.nanoTime();
+        long v = version.getAsLong();
+        if (cached != null && (topVersion[node] == v || now - topAt[node] < STALE_NANOS)) return cached;
+
+        // Gabungan entri node ini dan k teratas tiap anak (anak besar memakai cache-nya sendiri)
+        Barang[] buf = new Barang[MAX_K];
+        int n = offerEnds(buf, ends[node], 0);
+        for (int c = child[node]; c >= 0; c = sibling[c]) {
+            if (count[c] == 0) continue;
+            for (Barang b : top(c)) n = offer(buf, b, n);
+        }
+        Barang[] result = n == MAX_K ? buf : Arrays.copyOf(buf, n);
+        top[node] = result;
+        topAt[node] = now;
+        topVersion[node] = v;
+        return result;
+    }
+
+    // Subtree kecil: kunjungi semua node tanpa menyimpan cache
+    private Barang[] scan(int node) {
+        Barang[] buf = new Barang[MAX_K];
+        int n = 0, sp = 0;
+        stack[sp++] = node;
+        while (sp > 0) {
+            int cur = stack[--sp];
+            n = offerEnds(buf, ends[cur], n);
+            for (int c = child[cur]; c >= 0; c = sibling[c]) {
+                if (count[c] == 0) continue;
+                if (sp == stack.length) stack = Arrays.copyOf(stack, sp * 2);
+                stack[sp++] = c;
+            }
+        }
+        return n == MAX_K ? buf : Arrays.copyOf(buf, n);
+    }
+
+    private static int offerEnds(Barang[] buf, Object e, int n) {
+        if (e == null) return n;
+        if (e instanceof Barang) return offer(buf, (Barang) e, n);
+        @SuppressWarnings("unchecked")
+        ArrayList<Barang> list = (ArrayList<Barang>) e;
+        for (Barang b : list) n = offer(buf, b, n);
+        return n;
+    }
+
+    // Sisipkan b ke buf[0..n) yang urut stok menurun (maks MAX_K, tanpa duplikat)
+    private static int offer(Barang[] buf, Barang b, int n) {
+        int stok = b.getStok();
+        if (n == MAX_K && stok <= buf[n - 1].getStok()) return n;
+        for (int i = 0; i < n; i++) if (buf[i] == b) return n; // barang yang sama lewat nama & brand
+        int i = n == MAX_K ? n - 1 : n++;
+        while (i > 0 && buf[i - 1].getStok() < stok) {
+            buf[i] = buf[i - 1];
+            i--;
+        }
+        buf[i] = b;
+        return n;
+    }
+}
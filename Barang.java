@@ -3,18 +3,23 @@ public class Barang {
     private String id;
     private String nama;
     private double harga;
-    private int stok;
-    private String deskripsi;
-    private String brand;
+    private final StokCounter stok; // penghitung stok berbasis CAS (aman dipakai banyak thread)
+    private volatile Object deskripsi; // String, atau byte[] terpadatkan (mode deskripsi lazy)
+    private int brandCode; // kode di BrandDictionary (String brand dipakai bersama)
 
     // Konstruktor lengkap untuk seluruh atribut
     public Barang(String id, String nama, double harga, int stok, String deskripsi, String brand) {
+        this(id, nama, harga, stok, deskripsi, BrandDictionary.code(brand));
+    }
+
+    // Konstruktor dengan kode brand yang sudah diketahui (dipakai parser)
+    private Barang(String id, String nama, double harga, int stok, String deskripsi, int brandCode) {
         this.id = id == null ? "" : id;
         this.nama = nama == null ? "" : nama;
         this.harga = harga;
-        this.stok = stok;
+        this.stok = new StokCounter(stok);
         this.deskripsi = deskripsi == null ? "" : deskripsi;
-        this.brand = brand == null ? "" : brand;
+        this.brandCode = brandCode;
     }
 
     // Konstruktor ringkas (kompatibel dengan format file lama: hanya id, nama, harga)
@@ -37,27 +42,58 @@ public class Barang {
         return harga;
     }
 
-    // Getter deskripsi
+    // Getter deskripsi; deskripsi terpadatkan dibuka saat diminta (tidak disimpan kembali
+    // sebagai String, supaya tampilan yang menelusuri semua barang tidak membengkakkan heap)
     public String getDeskripsi() {
-        return deskripsi;
+        Object d = deskripsi;
+        return d instanceof byte[] ? DeskripsiCodec.unpack((byte[]) d) : (String) d;
+    }
+
+    // Memadatkan deskripsi di memori (dipanggil ListBarang saat mode deskripsi lazy aktif)
+    public void packDeskripsi() {
+        Object d = deskripsi;
+        if (d instanceof String) {
+            byte[] packed = DeskripsiCodec.pack((String) d);
+            if (packed != null) deskripsi = packed;
+        }
     }
 
     // Getter brand (dua nama untuk kompatibilitas)
     public String getBrand() {
-        return brand;
+        return BrandDictionary.name(brandCode);
     }
     public String getbrand() {
-        return brand;
+        return getBrand();
+    }
+
+    // Kode brand: dua barang ber-brand sama selalu berkode sama (filter cukup membandingkan int)
+    public int getBrandCode() {
+        return brandCode;
     }
 
     // Getter stok
     public int getStok() {
-        return stok;
+        return stok.get();
     }
 
     // Setter stok
     public void setStok(int stok) {
-        this.stok = stok;
+        this.stok.set(stok);
+    }
+
+    // Mengurangi stok secara atomik; false jika stok tidak cukup (tidak pernah minus)
+    public boolean tryReduceStok(int qty) {
+        return stok.tryTake(qty);
+    }
+
+    // Menambah stok secara atomik (qty negatif mengurangi tanpa validasi)
+    public void addStok(int qty) {
+        stok.add(qty);
+    }
+
+    // Memecah stok barang "panas" ke beberapa shard untuk mengurangi rebutan antar thread
+    public void setStokShards(int shards) {
+        stok.setShards(shards);
     }
 
     // Setter nama
@@ -72,10 +108,10 @@ public class Barang {
 
     // Setter brand (dua nama untuk kompatibilitas)
     public void setBrand(String brand) {
-        this.brand = brand;
+        this.brandCode = BrandDictionary.code(brand);
     }
     public void setbrand(String brand) {
-        this.brand = brand;
+        setBrand(brand);
     }
 
     // Setter harga
@@ -86,53 +122,168 @@ public class Barang {
     // Representasi barang untuk debugging / tampilan CLI
     @Override
     public String toString() {
-        return "ID: " + id + ", Nama: " + nama + ", Harga: Rp " + harga + ", Stok: " + stok + ", Deskripsi: " + deskripsi + ", Brand: " + brand;
+        return "ID: " + id + ", Nama: " + nama + ", Harga: Rp " + harga + ", Stok: " + getStok() + ", Deskripsi: " + getDeskripsi() + ", Brand: " + getBrand();
+    }
+
+    // Satu baris format penyimpanan barang.txt (CSV 6 kolom)
+    public String toFileString() {
+        return id + "," + escape(nama) + "," + harga + "," + getStok()
+                + "," + escape(getDeskripsi()) + "," + escape(getBrand());
+    }
+
+    // Membersihkan karakter yang mengganggu format CSV
+    private static String escape(String s) {
+        if (s == null) return "";
+        return s.replace(",", " ")
+                .replace("\r", " ")
+                .replace("\n", " ")
+                .trim();
     }
 
     // Parse satu baris dari file (mendukung format CSV lama dan format lengkap)
     public static Barang fromFileString(String line) {
         if (line == null) return null;
-        String l = line.trim();
-        if (l.isEmpty()) return null;
-
-        // coba parse sebagai CSV (koma) terlebih dahulu, lalu tab, lalu pipe
-        String[] parts = l.split(",", -1);
-        if (parts.length < 3) {
-            if (l.contains("\t")) parts = l.split("\t", -1);
-            else if (l.contains("|")) parts = l.split("\\|", -1);
+        return parse(line.toCharArray(), 0, line.length());
+    }
+
+    // Parser satu kali jalan langsung dari buffer karakter [from, to).
+    // Urutan pemisah sama seperti format lama: koma dulu, lalu tab, lalu pipe.
+    // harga/stok dibaca tanpa membuat String perantara; baris rusak menghasilkan null (tanpa exception).
+    public static Barang parse(char[] buf, int from, int to) {
+        // trim seluruh baris
+        while (from < to && buf[from] <= ' ') from++;
+        while (to > from && buf[to - 1] <= ' ') to--;
+        if (from >= to) return null;
+
+        char sep = separatorOf(buf, from, to);
+
+        // posisi awal/akhir maksimal 6 kolom pertama (kolom sisanya diabaikan)
+        int[] start = new int[6];
+        int[] end = new int[6];
+        int n = 0;
+        int s = from;
+        for (int i = from; i <= to && n < 6; i++) {
+            if (i == to || buf[i] == sep) {
+                start[n] = s;
+                end[n] = i;
+                n++;
+                s = i + 1;
+            }
+        }
+        if (n < 3) return null;
+
+        double harga = parseHarga(buf, start[2], end[2]);
+        if (Double.isNaN(harga)) return null;
+        String id = field(buf, start[0], end[0]);
+        String nama = field(buf, start[1], end[1]);
+        if (n < 6) return new Barang(id, nama, harga); // stok/deskripsi/brand default
+
+        long stok = parseStok(buf, start[3], end[3]);
+        if (stok == Long.MIN_VALUE) return null;
+        return new Barang(id, nama, harga, (int) stok, field(buf, start[4], end[4]), brandCode(buf, start[5], end[5]));
+    }
+
+    // Kolom brand langsung ke kode kamus; String baru hanya dibuat untuk brand yang belum dikenal
+    private static int brandCode(char[] buf, int from, int to) {
+        while (from < to && buf[from] <= ' ') from++;
+        while (to > from && buf[to - 1] <= ' ') to--;
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            if (c == '\t' || c == '\r' || c == '\n') return BrandDictionary.code(field(buf, from, to));
         }
+        return BrandDictionary.code(buf, from, to);
+    }
 
-        // trim semua bagian
-        for (int i = 0; i < parts.length; i++) {
-            parts[i] = parts[i].trim();
+    // Koma dipakai jika menghasilkan >= 3 kolom; jika tidak, tab lalu pipe (format lama)
+    private static char separatorOf(char[] buf, int from, int to) {
+        int commas = 0;
+        boolean tab = false, pipe = false;
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            if (c == ',' && ++commas >= 2) return ',';
+            if (c == '\t') tab = true;
+            else if (c == '|') pipe = true;
         }
+        return tab ? '\t' : pipe ? '|' : ',';
+    }
 
-        try {
-            if (parts.length >= 6) {
-                String id = unescape(parts[0]);
-                String nama = unescape(parts[1]);
-                double harga = Double.parseDouble(parts[2]);
-                int stok = Integer.parseInt(parts[3]);
-                String deskripsi = unescape(parts[4]);
-                String brand = unescape(parts[5]);
-                return new Barang(id, nama, harga, stok, deskripsi, brand);
-            } else if (parts.length >= 3) {
-                String id = unescape(parts[0]);
-                String nama = unescape(parts[1]);
-                double harga = Double.parseDouble(parts[2]);
-                return new Barang(id, nama, harga); // stok/deskripsi/brand default
+    // Ambil satu kolom teks: trim, lalu tab/CR/LF di dalamnya diganti spasi
+    private static String field(char[] buf, int from, int to) {
+        while (from < to && buf[from] <= ' ') from++;
+        while (to > from && buf[to - 1] <= ' ') to--;
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            if (c == '\t' || c == '\r' || c == '\n') {
+                char[] copy = new char[to - from];
+                for (int k = 0; k < copy.length; k++) {
+                    char d = buf[from + k];
+                    copy[k] = (d == '\t' || d == '\r' || d == '\n') ? ' ' : d;
+                }
+                return new String(copy);
+            }
+        }
+        return new String(buf, from, to - from);
+    }
+
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Angka desimal sederhana ([+-]digit[.digit]) dihitung langsung: mantisa / 10^n.
+    // Selama mantisa < 2^53 dan n <= 22 hasilnya sama persis dengan Double.parseDouble.
+    // Bentuk lain (eksponen, NaN, dll.) jatuh ke Double.parseDouble. NaN = tidak valid.
+    private static double parseHarga(char[] buf, int from, int to) {
+        while (from < to && buf[from] <= ' ') from++;
+        while (to > from && buf[to - 1] <= ' ') to--;
+        int i = from;
+        boolean neg = false;
+        if (i < to && (buf[i] == '-' || buf[i] == '+')) neg = buf[i++] == '-';
+        long mant = 0;
+        int digits = 0, frac = 0;
+        boolean dot = false, simple = i < to;
+        for (; i < to; i++) {
+            char c = buf[i];
+            if (c >= '0' && c <= '9') {
+                if (++digits > 15) { simple = false; break; }
+                mant = mant * 10 + (c - '0');
+                if (dot) frac++;
+            } else if (c == '.' && !dot) {
+                dot = true;
             } else {
-                return null;
+                simple = false;
+                break;
             }
-        } catch (Exception e) {
-            // parsing gagal -> kembalikan null
-            return null;
+        }
+        if (simple && digits > 0) {
+            double v = frac == 0 ? mant : mant / POW10[frac];
+            return neg ? -v : v;
+        }
+        if (from >= to) return Double.NaN;
+        try {
+            double v = Double.parseDouble(new String(buf, from, to - from));
+            return Double.isNaN(v) ? Double.NaN : v;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
         }
     }
 
-    // Membersihkan karakter aneh dari file (newline, tab)
-    private static String unescape(String s) {
-        if (s == null) return "";
-        return s.replace("\t", " ").replace("\r", " ").replace("\n", " ").trim();
+    // [+-]digit sesuai rentang int; Long.MIN_VALUE = tidak valid
+    private static long parseStok(char[] buf, int from, int to) {
+        while (from < to && buf[from] <= ' ') from++;
+        while (to > from && buf[to - 1] <= ' ') to--;
+        int i = from;
+        boolean neg = false;
+        if (i < to && (buf[i] == '-' || buf[i] == '+')) neg = buf[i++] == '-';
+        if (i >= to) return Long.MIN_VALUE;
+        long v = 0;
+        for (; i < to; i++) {
+            char c = buf[i];
+            if (c < '0' || c > '9') return Long.MIN_VALUE;
+            v = v * 10 + (c - '0');
+            if (v > (long) Integer.MAX_VALUE + 1) return Long.MIN_VALUE;
+        }
+        if (neg) v = -v;
+        return v < Integer.MIN_VALUE || v > Integer.MAX_VALUE ? Long.MIN_VALUE : v;
     }
 }
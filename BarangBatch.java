@@ -0,0 +1,93 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Kumpulan perubahan barang yang diterapkan sekaligus lewat ListBarang.applyBatch().
+// Semua operasi divalidasi bersama (all-or-nothing), diterapkan di memori, lalu file
+// disimpan satu kali saja, misalnya untuk ubah harga satu brand atau restock ratusan barang.
+public class BarangBatch {
+
+    public enum Kind { ADD, REMOVE, EDIT, EDIT_INFO, RESTOCK, REPRICE, UPSERT }
+
+    // Satu operasi dalam batch (field yang tidak dipakai jenis operasinya dibiarkan kosong)
+    public static final class Op {
+        final Kind kind;
+        final String id;
+        final Barang barang;   // ADD, UPSERT
+        final String nama;     // EDIT, EDIT_INFO
+        final double harga;    // EDIT, EDIT_INFO, REPRICE
+        final int stok;        // EDIT
+        final String deskripsi;// EDIT, EDIT_INFO
+        final String brand;    // EDIT, EDIT_INFO
+        final int delta;       // RESTOCK (boleh negatif)
+
+        private Op(Kind kind, String id, Barang barang, String nama, double harga, int stok,
+                   String deskripsi, String brand, int delta) {
+            this.kind = kind;
+            this.id = id;
+            this.barang = barang;
+            this.nama = nama;
+            this.harga = harga;
+            this.stok = stok;
+            this.deskripsi = deskripsi;
+            this.brand = brand;
+            this.delta = delta;
+        }
+    }
+
+    private final List<Op> ops = new ArrayList<>();
+
+    // Menambah barang baru (ID kosong -> dibuatkan otomatis saat diterapkan)
+    public BarangBatch add(Barang b) {
+        ops.add(new Op(Kind.ADD, b == null ? null : b.getId(), b, null, 0, 0, null, null, 0));
+        return this;
+    }
+
+    // Menambah barang, atau mengganti seluruh atributnya jika ID sudah ada (dipakai import CSV)
+    public BarangBatch upsert(Barang b) {
+        ops.add(new Op(Kind.UPSERT, b == null ? null : b.getId(), b, null, 0, 0, null, null, 0));
+        return this;
+    }
+
+    public BarangBatch remove(String id) {
+        ops.add(new Op(Kind.REMOVE, id, null, null, 0, 0, null, null, 0));
+        return this;
+    }
+
+    // Edit lengkap semua atribut (sama seperti editBarangFull)
+    public BarangBatch edit(String id, String nama, double harga, int stok, String deskripsi, String brand) {
+        ops.add(new Op(Kind.EDIT, id, null, nama, harga, stok, deskripsi, brand, 0));
+        return this;
+    }
+
+    // Edit atribut selain stok; stok yang berlaku saat batch diterapkan tetap dipakai,
+    // sehingga checkout yang terjadi sejak data dibaca tidak tertimpa (ubah stok lewat restock)
+    public BarangBatch editInfo(String id, String nama, double harga, String deskripsi, String brand) {
+        ops.add(new Op(Kind.EDIT_INFO, id, null, nama, harga, 0, deskripsi, brand, 0));
+        return this;
+    }
+
+    // Menambah (atau mengurangi bila negatif) stok
+    public BarangBatch restock(String id, int delta) {
+        ops.add(new Op(Kind.RESTOCK, id, null, null, 0, 0, null, null, delta));
+        return this;
+    }
+
+    // Mengganti harga saja
+    public BarangBatch reprice(String id, double harga) {
+        ops.add(new Op(Kind.REPRICE, id, null, null, harga, 0, null, null, 0));
+        return this;
+    }
+
+    public int size() {
+        return ops.size();
+    }
+
+    public boolean isEmpty() {
+        return ops.isEmpty();
+    }
+
+    List<Op> getOps() {
+        return Collections.unmodifiableList(ops);
+    }
+}
@@ -0,0 +1,290 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Benchmark sederhana untuk jalur-jalur panas katalog.
+// Jalankan: java Benchmark stok [opsPerThread]
+//           java Benchmark load [jumlahBaris]
+//           java Benchmark kolom [jumlahBaris]
+//           java Benchmark saran [jumlahBaris]
+//           java Benchmark fuzzy [jumlahBarisMaks]
+public class Benchmark {
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "stok";
+        switch (mode) {
+            case "stok":
+                benchStok(args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000);
+                break;
+            case "load":
+                benchLoad(args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000);
+                break;
+            case "kolom":
+                benchKolom(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+                break;
+            case "saran":
+                benchSaran(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+                break;
+            case "fuzzy":
+                benchFuzzy(args.length > 1 ? Integer.parseInt(args[1]) : 500_000);
+                break;
+            default:
+                System.out.println("Mode tidak dikenal: " + mode);
+        }
+    }
+
+    // ======================= STOK (flash sale) ==========================
+    // Banyak thread mengurangi stok satu barang yang sama. Dibandingkan penghitung tunggal (CAS)
+    // dengan penghitung yang dipecah ke beberapa shard; jumlah thread dinaikkan sampai 2x core.
+    private static void benchStok(int opsPerThread) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Core: " + cores + ", ops/thread: " + opsPerThread);
+        System.out.printf("%-8s %18s %18s%n", "Thread", "CAS tunggal (op/s)", "Shard (op/s)");
+        for (int t = 1; t <= cores * 2; t *= 2) {
+            double single = runStok(new StokCounter(t * opsPerThread), t, opsPerThread);
+            StokCounter sharded = new StokCounter(t * opsPerThread);
+            sharded.setShards(Math.max(2, t));
+            double shard = runStok(sharded, t, opsPerThread);
+            System.out.printf("%-8d %,18.0f %,18.0f%n", t, single, shard);
+        }
+
+        // Cek tidak ada oversell: pembeli jauh lebih banyak dari stok
+        StokCounter c = new StokCounter(10_000);
+        c.setShards(Math.max(2, cores));
+        AtomicInteger sold = new AtomicInteger();
+        Thread[] ts = new Thread[Math.max(4, cores * 2)];
+        for (int i = 0; i < ts.length; i++) {
+            ts[i] = new Thread(() -> {
+                for (int k = 0; k < 10_000; k++) if (c.tryTake(1 + k % 3)) sold.addAndGet(1 + k % 3);
+            });
+            ts[i].start();
+        }
+        for (Thread th : ts) th.join();
+        System.out.println("Oversell check: terjual " + sold.get() + ", sisa " + c.get()
+                + (sold.get() + c.get() == 10_000 && c.get() >= 0 ? " (OK)" : " (GAGAL)"));
+    }
+
+    // ======================= LOAD (barang.txt besar) ==========================
+    // Membuat file katalog sintetis berformat barang.txt, lalu membandingkan pembacaan berurutan
+    // dengan pembacaan paralel pada pool berukuran 1, 2, 4, ... sampai jumlah core, dan format biner.
+    private static void benchLoad(int lines) throws Exception {
+        File f = File.createTempFile("barang-bench", ".txt");
+        f.deleteOnExit();
+        writeSyntheticCatalog(f, lines);
+        System.out.printf("File: %,d baris, %,d byte%n", lines, f.length());
+
+        timeLoad("Berurutan", () -> CatalogLoader.readSequential(f));
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= cores; p *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(p);
+            timeLoad("Paralel x" + p, () -> CatalogLoader.readParallel(f, pool));
+            pool.shutdown();
+        }
+
+        // Snapshot yang sama dalam format biner (BinarySnapshot)
+        File bin = File.createTempFile("barang-bench", ".bin");
+        bin.deleteOnExit();
+        BinarySnapshot.fromText(f.getPath(), bin.getPath());
+        timeLoad("Biner", () -> BinarySnapshot.read(bin));
+    }
+
+    // ======================= KOLOM (agregat & urut) ==========================
+    // Membandingkan agregat lewat List<Barang> (getter per objek) dengan CatalogColumns.
+    private static void benchKolom(int lines) throws Exception {
+        File f = File.createTempFile("barang-bench", ".txt");
+        f.deleteOnExit();
+        writeSyntheticCatalog(f, lines);
+        ListBarang lb = new ListBarang();
+        lb.setFilePath(f.getPath());
+        lb.loadData();
+        List<Barang> list = lb.getBarangList();
+
+        long t0 = System.nanoTime();
+        CatalogColumns cols = lb.getColumns();
+        System.out.printf("Bangun kolom         %,10d us  (%,d barang)%n", (System.nanoTime() - t0) / 1000, cols.size());
+
+        double[] sink = new double[1];
+        timeKolom("Nilai (List)", () -> {
+            double s = 0;
+            for (Barang b : list) s += b.getHarga() * b.getStok();
+            sink[0] += s;
+        });
+        timeKolom("Nilai (kolom)", () -> sink[0] += cols.totalNilai());
+        timeKolom("Stok/brand (kolom)", () -> sink[0] += cols.stokPerBrand().size());
+        timeKolom("Urut harga (List)", () -> {
+            List<Barang> copy = new ArrayList<>(list);
+            copy.sort(Comparator.comparingDouble(Barang::getHarga));
+            sink[0] += copy.size();
+        });
+        // Urutan di-cache per kolom, jadi tiap putaran memakai kolom yang belum pernah diurutkan
+        CatalogColumns[] fresh = new CatalogColumns[8];
+        for (int i = 0; i < fresh.length; i++) fresh[i] = new CatalogColumns(lb.getSnapshot(), -1);
+        int[] next = {0};
+        timeKolom("Urut harga (kolom)", () -> sink[0] += fresh[next[0]++].urutHarga().length);
+        timeKolom("p90 harga (kolom)", () -> sink[0] += cols.persentilHarga(90));
+        System.out.println("(checksum " + (long) sink[0] + ")");
+    }
+
+    // ======================= SARAN KETIK ==========================
+    // Waktu per panggilan suggest() untuk prefix pendek (subtree besar) sampai panjang.
+    // Panggilan pertama menghitung cache k teratas; berikutnya memakai cache.
+    private static void benchSaran(int lines) throws Exception {
+        File f = File.createTempFile("barang-bench", ".txt");
+        f.deleteOnExit();
+        writeSyntheticCatalog(f, lines);
+        ListBarang lb = new ListBarang();
+        lb.setFilePath(f.getPath());
+        lb.loadData();
+
+        long t0 = System.nanoTime();
+        AutocompleteIndex ac = lb.getAutocomplete();
+        System.out.printf("Bangun trie          %,10d ms  (%,d node)%n", (System.nanoTime() - t0) / 1_000_000, ac.size());
+        for (String prefix : new String[]{"v", "vit", "vitamin c serum 1", "wardah", "war", "x"}) {
+            long c0 = System.nanoTime();
+            int n = ac.suggest(prefix, 8).size();
+            long cold = System.nanoTime() - c0;
+            int rounds = 100_000;
+            long w0 = System.nanoTime();
+            for (int i = 0; i < rounds; i++) n += ac.suggest(prefix, 8).size();
+            long warm = (System.nanoTime() - w0) / rounds;
+            System.out.printf("%-20s pertama %,8d us, berikutnya %,6d ns  (%d)%n", "\"" + prefix + "\"", cold / 1000, warm, n / (rounds + 1));
+        }
+    }
+
+    // ======================= PENCARIAN SALAH KETIK ==========================
+    // Latensi koreksi kata (indeks trigram) dan pencarian lengkap untuk ukuran katalog yang naik.
+    // Katalog memakai kata acak dari suku kata, sehingga kosakata ikut membesar bersama katalog.
+    private static void benchFuzzy(int maxLines) throws Exception {
+        System.out.printf("%-10s %8s %10s %14s %14s %8s%n", "Barang", "Kata", "Indeks ms", "Koreksi (us)", "Cari (us)", "Tepat");
+        for (int lines = 10_000; lines <= maxLines; lines *= 10) {
+            runFuzzy(lines);
+            if (lines < maxLines && lines * 10 > maxLines) runFuzzy(maxLines);
+        }
+    }
+
+    private static void runFuzzy(int lines) throws Exception {
+        Random rnd = new Random(42);
+        String[] syl = {"ka", "ri", "mo", "na", "se", "lu", "te", "po", "di", "ga", "ve", "ro", "sa", "mi", "tu", "le", "ba", "ni"};
+        Set<String> vocab = new LinkedHashSet<>();
+        while (vocab.size() < Math.max(500, lines / 4)) {
+            StringBuilder w = new StringBuilder();
+            for (int k = 2 + rnd.nextInt(4); k > 0; k--) w.append(syl[rnd.nextInt(syl.length)]);
+            vocab.add(w.toString());
+        }
+        String[] words = vocab.toArray(new String[0]);
+
+        File f = File.createTempFile("barang-bench", ".txt");
+        f.deleteOnExit();
+        try (BufferedWriter w = new BufferedWriter(new FileWriter(f))) {
+            for (int i = 1; i <= lines; i++) {
+                String nama = words[rnd.nextInt(words.length)] + " " + words[rnd.nextInt(words.length)];
+                w.write(i + "," + nama + ",10000.0,5,Produk perawatan kulit.," + words[i % 200]);
+                w.newLine();
+            }
+        }
+        ListBarang lb = new ListBarang();
+        lb.setFilePath(f.getPath());
+        lb.loadData();
+        long t0 = System.nanoTime();
+        CatalogSearch cs = lb.getSearch();
+        long buildMs = (System.nanoTime() - t0) / 1_000_000;
+
+        // Kata query: kata katalog dengan satu salah ketik (ganti / hapus / sisip satu huruf)
+        int n = 2000;
+        String[] orig = new String[n], typo = new String[n];
+        for (int i = 0; i < n; i++) {
+            String w;
+            do w = words[rnd.nextInt(words.length)]; while (w.length() < 6);
+            int pos = 1 + rnd.nextInt(w.length() - 1);
+            char c = (char) ('a' + rnd.nextInt(26));
+            switch (rnd.nextInt(3)) {
+                case 0: typo[i] = w.substring(0, pos) + c + w.substring(pos + 1); break;
+                case 1: typo[i] = w.substring(0, pos) + w.substring(pos + 1); break;
+                default: typo[i] = w.substring(0, pos) + c + w.substring(pos); break;
+            }
+            orig[i] = w;
+        }
+        FuzzyIndex fz = cs.getFuzzy();
+        int exact = 0;
+        for (int i = 0; i < n; i++) if (orig[i].equals(fz.closest(typo[i]))) exact++; // pemanasan + ketepatan
+        t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) fz.closest(typo[i]);
+        long fixNs = (System.nanoTime() - t0) / n;
+        t0 = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < n; i++) found += cs.search(typo[i], 10).size();
+        long searchNs = (System.nanoTime() - t0) / n;
+        System.out.printf("%,-10d %,8d %,10d %,14.1f %,14.1f %7.1f%%%s%n", lines, fz.size(), buildMs,
+                fixNs / 1000.0, searchNs / 1000.0, exact * 100.0 / n, found == 0 ? " (tanpa hasil!)" : "");
+        f.delete();
+    }
+
+    private static void timeKolom(String label, Runnable run) {
+        for (int i = 0; i < 3; i++) run.run(); // pemanasan JIT
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long t0 = System.nanoTime();
+            run.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        System.out.printf("%-20s %,10d us%n", label, best / 1000);
+    }
+
+    private interface LoadRun {
+        CatalogLoader.Result run() throws IOException;
+    }
+
+    private static void timeLoad(String label, LoadRun run) throws IOException {
+        run.run(); // pemanasan JIT
+        long best = Long.MAX_VALUE;
+        int count = 0;
+        for (int i = 0; i < 3; i++) {
+            long t0 = System.nanoTime();
+            count = run.run().items.size();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        System.out.printf("%-14s %,10d ms  (%,d barang)%n", label, best / 1_000_000, count);
+    }
+
+    static void writeSyntheticCatalog(File f, int lines) throws IOException {
+        String[] brands = {"GlowSkin", "AquaFace", "LuminaCare", "DermaAge", "Somethinc", "Wardah", "Emina", "Maybelline"};
+        String[] names = {"Hydrating Toner", "Vitamin C Serum", "Retinol Night Cream", "Daily Sunscreen SPF50",
+                "Niacinamide Serum", "Gentle Cleanser", "Lip Tint", "Cushion Foundation"};
+        try (BufferedWriter w = new BufferedWriter(new FileWriter(f))) {
+            for (int i = 1; i <= lines; i++) {
+                String nama = names[i % names.length] + " " + i;
+                w.write(String.format("%02d", i) + "," + nama + "," + (10000 + (i * 37 % 500) * 1000) + ".0,"
+                        + (i % 200) + "," + nama + " adalah produk perawatan kulit dengan tekstur ringan dan cepat meresap."
+                        + " Cocok untuk penggunaan harian dan semua jenis kulit.," + brands[i % brands.length]);
+                w.newLine();
+            }
+        }
+    }
+
+    private static double runStok(StokCounter c, int threads, int ops) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] ts = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            ts[i] = new Thread(() -> {
+                try { start.await(); } catch (InterruptedException e) { return; }
+                for (int k = 0; k < ops; k++) c.tryTake(1);
+            });
+            ts[i].start();
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread th : ts) th.join();
+        long ns = System.nanoTime() - t0;
+        return (double) threads * ops / (ns / 1e9);
+    }
+}
@@ -0,0 +1,174 @@
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Format snapshot katalog biner (fixed-width) sebagai alternatif barang.txt untuk katalog besar.
+// ListBarang memakai format ini jika file katalognya berformat biner (dikenali dari magic) atau
+// berakhiran ".bin": load memetakan file dan membaca harga/stok langsung dari record tanpa memecah
+// baris atau parse angka teks, tetapi setiap record tetap dibuat menjadi Barang saat load.
+//
+// Ini hanya format snapshot: file TIDAK diubah di tempat. Update stok langsung ke file yang dipetakan
+// (putInt di record lalu force) sengaja tidak dipakai, karena:
+//   - stok di memori ada di penghitung CAS Barang (bisa dipecah per shard untuk barang panas), dan
+//     urutan perubahan antar-proses dijaga oleh seq jurnal yang diputar ulang proses lain; tulisan
+//     langsung ke file melewati keduanya, dan read-modify-write atomik antar-proses pada mapping
+//     butuh kunci file di setiap checkout;
+//   - pemadatan mengganti file lewat rename atomik, jadi mapping yang dipegang proses lain basi.
+// String juga tidak didekode malas: indeks pencarian, saran, dan facet membaca nama/brand/deskripsi
+// setiap barang saat dibangun, jadi semuanya tetap akan didekode.
+// Perubahan stok lewat jurnal, lalu dipadatkan ke snapshot biner seperti barang.txt.
+//
+// Tata letak file (big-endian):
+//   header  48 byte : magic "GLWB", versi, jumlah record, ukuran record, offset heap (long),
+//                     ukuran heap (long), seq jurnal (long), batas ID otomatis (int), cadangan (int)
+//   record  48 byte : harga (double), stok (int), cadangan (int),
+//                     lalu 4 referensi string (offset int, panjang int): id, nama, deskripsi, brand
+//   heap            : isi string UTF-8
+// Seluruh file dipetakan sekaligus, jadi ukurannya dibatasi MAX_FILE (offset heap berupa int).
+public class BinarySnapshot {
+    private static final int MAGIC = 0x474C5742; // "GLWB"
+    private static final int VERSION = 2;
+    private static final int HEADER = 48;
+    private static final int RECORD = 48;
+    private static final int OFF_HARGA = 0, OFF_STOK = 8, OFF_STR = 16;
+    private static final int FIELDS = 4; // id, nama, deskripsi, brand
+    static final long MAX_FILE = Integer.MAX_VALUE;
+
+    // true jika file diawali magic katalog biner
+    public static boolean isBinary(File f) {
+        if (!f.isFile() || f.length() < 4) return false;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(f))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // ================================
+    //      BACA
+    // ================================
+
+    // Memetakan file lalu membuat Barang per record; semua offset diperiksa terhadap ukuran file
+    public static CatalogLoader.Result read(File f) throws IOException {
+        CatalogLoader.Result res = new CatalogLoader.Result();
+        try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > MAX_FILE) throw new IOException("File katalog biner melebihi 2 GB: " + f);
+            if (size < HEADER) throw new IOException("Bukan file katalog biner yang valid: " + f);
+            MappedByteBuffer m = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (m.getInt(0) != MAGIC || m.getInt(4) != VERSION || m.getInt(12) != RECORD)
+                throw new IOException("Bukan file katalog biner yang valid: " + f);
+            int count = m.getInt(8);
+            long heapOffset = m.getLong(16), heapSize = m.getLong(24);
+            if (count < 0 || heapOffset != HEADER + (long) count * RECORD
+                    || heapSize < 0 || heapOffset + heapSize > size)
+                throw new IOException("Header katalog biner rusak: " + f);
+            res.headerSeq = m.getLong(32);
+            res.headerId = m.getInt(40);
+
+            byte[] buf = new byte[256];
+            String[] s = new String[FIELDS];
+            for (int i = 0; i < count; i++) {
+                int rec = HEADER + i * RECORD; // < heapOffset <= MAX_FILE
+                for (int k = 0; k < FIELDS; k++) {
+                    int off = m.getInt(rec + OFF_STR + k * 8), len = m.getInt(rec + OFF_STR + k * 8 + 4);
+                    if (off < 0 || len < 0 || (long) off + len > heapSize)
+                        throw new IOException("Record " + i + " menunjuk ke luar heap: " + f);
+                    if (len > buf.length) buf = new byte[Math.max(len, buf.length * 2)];
+                    m.get((int) (heapOffset + off), buf, 0, len);
+                    s[k] = new String(buf, 0, len, StandardCharsets.UTF_8);
+                }
+                res.items.add(new Barang(s[0], s[1], m.getDouble(rec + OFF_HARGA), m.getInt(rec + OFF_STOK), s[2], s[3]));
+            }
+        }
+        return res;
+    }
+
+    // ================================
+    //      TULIS
+    // ================================
+
+    // Menulis snapshot biner ke out. String dikodekan dulu ke heap (agar ukurannya diketahui untuk
+    // header); gagal dengan IOException sebelum menulis apa pun jika file akan melebihi MAX_FILE.
+    public static void write(List<Barang> items, long seq, int idHighWater, OutputStream os) throws IOException {
+        long heapOff = HEADER + (long) items.size() * RECORD;
+        if (heapOff > MAX_FILE) throw new IOException("Katalog biner melebihi 2 GB (" + items.size() + " barang)");
+        ByteArrayOutputStream heap = new ByteArrayOutputStream();
+        int[] refs = new int[items.size() * FIELDS * 2];
+        int r = 0;
+        for (Barang b : items) {
+            for (String s : new String[] {b.getId(), b.getNama(), b.getDeskripsi(), b.getBrand()}) {
+                byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+                if (heapOff + heap.size() + bytes.length > MAX_FILE)
+                    throw new IOException("Katalog biner melebihi 2 GB (heap string terlalu besar)");
+                refs[r++] = heap.size();
+                refs[r++] = bytes.length;
+                heap.write(bytes);
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(items.size());
+        out.writeInt(RECORD);
+        out.writeLong(heapOff);
+        out.writeLong(heap.size());
+        out.writeLong(seq);
+        out.writeInt(idHighWater);
+        out.writeInt(0);
+        r = 0;
+        for (Barang b : items) {
+            out.writeDouble(b.getHarga());
+            out.writeInt(b.getStok());
+            out.writeInt(0);
+            for (int k = 0; k < FIELDS * 2; k++) out.writeInt(refs[r++]);
+        }
+        heap.writeTo(out);
+        out.flush();
+    }
+
+    // ================================
+    //      KONVERSI barang.txt <-> biner
+    // ================================
+
+    // barang.txt -> biner (seq & batas ID dari header ikut dibawa)
+    public static void fromText(String txtPath, String binPath) throws IOException {
+        CatalogLoader.Result r = CatalogLoader.read(new File(txtPath));
+        try (FileOutputStream out = new FileOutputStream(binPath)) {
+            write(r.items, r.headerSeq, r.headerId, out);
+        }
+    }
+
+    // biner -> barang.txt
+    public static void toText(String binPath, String txtPath) throws IOException {
+        CatalogLoader.Result r = read(new File(binPath));
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(txtPath, false))) {
+            bw.write("# seq=" + r.headerSeq + " id=" + r.headerId);
+            bw.newLine();
+            for (Barang b : r.items) {
+                bw.write(b.toFileString());
+                bw.newLine();
+            }
+        }
+    }
+
+    // Alat konversi: java BinarySnapshot to-bin barang.txt barang.bin
+    //                java BinarySnapshot to-txt barang.bin barang.txt
+    // Katalog biner dipakai aplikasi dengan: java -Dkatalog.file=barang.bin Main
+    // (jurnal stok barang.txt harus sudah dipadatkan sebelum konversi)
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("to-bin")) {
+            fromText(args[1], args[2]);
+        } else if (args.length == 3 && args[0].equals("to-txt")) {
+            toText(args[1], args[2]);
+        } else {
+            System.out.println("Pemakaian: java BinarySnapshot (to-bin|to-txt) <sumber> <tujuan>");
+            return;
+        }
+        System.out.println("Konversi selesai: " + args[2]);
+    }
+}
@@ -0,0 +1,117 @@
+// Kamus brand global: setiap nama brand mendapat kode int kecil dan satu String kanonik.
+// Barang hanya menyimpan kodenya, sehingga sejuta barang dengan 200 brand cukup memegang
+// 200 String brand, dan filter per brand cukup membandingkan int.
+// Brand jarang bertambah, jadi kamus disalin ulang (copy-on-write) saat brand baru masuk;
+// pencarian tidak memakai lock sama sekali.
+public final class BrandDictionary {
+
+    // Isi kamus yang diterbitkan sekaligus (nama & tabel hash selalu konsisten)
+    private static final class State {
+        final String[] names; // kode -> nama
+        final int[] table;    // tabel hash open addressing: kode + 1 (0 = kosong)
+
+        State(String[] names, int[] table) {
+            this.names = names;
+            this.table = table;
+        }
+    }
+
+    private static volatile State state;
+
+    static {
+        state = new State(new String[0], new int[16]);
+        code(""); // kode 0 = tanpa brand
+    }
+
+    private BrandDictionary() {}
+
+    // Kode untuk brand (ditambahkan bila belum ada)
+    public static int code(String brand) {
+        if (brand == null) brand = "";
+        int c = find(brand);
+        return c >= 0 ? c : add(brand);
+    }
+
+    // Kode untuk brand di buf[from, to) tanpa membuat String jika brand sudah dikenal (dipakai parser)
+    public static int code(char[] buf, int from, int to) {
+        State s = state;
+        int mask = s.table.length - 1;
+        for (int i = hash(buf, from, to) & mask; ; i = (i + 1) & mask) {
+            int slot = s.table[i];
+            if (slot == 0) break;
+            if (matches(s.names[slot - 1], buf, from, to)) return slot - 1;
+        }
+        return add(new String(buf, from, to - from));
+    }
+
+    // Kode brand yang sudah ada, atau -1 (tidak menambah brand baru; cocok untuk filter)
+    public static int find(String brand) {
+        if (brand == null) return -1;
+        State s = state;
+        int mask = s.table.length - 1;
+        for (int i = hash(brand) & mask; ; i = (i + 1) & mask) {
+            int slot = s.table[i];
+            if (slot == 0) return -1;
+            if (s.names[slot - 1].equals(brand)) return slot - 1;
+        }
+    }
+
+    // Nama kanonik untuk sebuah kode
+    public static String name(int code) {
+        return state.names[code];
+    }
+
+    // Jumlah brand yang dikenal (kode selalu 0..size()-1)
+    public static int size() {
+        return state.names.length;
+    }
+
+    private static synchronized int add(String brand) {
+        State s = state;
+        // Cek ulang: mungkin sudah ditambahkan thread lain
+        int mask = s.table.length - 1;
+        for (int i = hash(brand) & mask; ; i = (i + 1) & mask) {
+            int slot = s.table[i];
+            if (slot == 0) break;
+            if (s.names[slot - 1].equals(brand)) return slot - 1;
+        }
+        int code = s.names.length;
+        String[] names = new String[code + 1];
+        System.arraycopy(s.names, 0, names, 0, code);
+        names[code] = brand;
+        // Tabel dijaga paling banyak setengah terisi
+        int cap = s.table.length;
+        while (cap < names.length * 2) cap <<= 1;
+        int[] table = new int[cap];
+        for (int c = 0; c < names.length; c++) {
+            int i = hash(names[c]) & (cap - 1);
+            while (table[i] != 0) i = (i + 1) & (cap - 1);
+            table[i] = c + 1;
+        }
+        state = new State(names, table);
+        return code;
+    }
+
+    // Hash sama dengan String.hashCode lalu diaduk, agar char[] dan String selalu cocok
+    private static int hash(String s) {
+        return mix(s.hashCode());
+    }
+
+    private static int hash(char[] buf, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + buf[i];
+        return mix(h);
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String name, char[] buf, int from, int to) {
+        if (name.length() != to - from) return false;
+        for (int i = 0; i < name.length(); i++)
+            if (name.charAt(i) != buf[from + i]) return false;
+        return true;
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Tampilan kolom (columnar) dari satu potret katalog: harga, stok, dan kode brand (BrandDictionary)
+// disimpan dalam array primitif, sehingga agregat dan pengurutan cukup berupa loop rapat tanpa boxing.
+// Dibuat lewat ListBarang.getColumns() dan dipakai ulang selama versi katalog sama.
+// Nilai stok adalah salinan saat kolom dibuat.
+public final class CatalogColumns {
+    private final long version;
+    private final Barang[] items;
+    private final double[] harga;
+    private final int[] stok;
+    private final int[] brandCode;   // kode BrandDictionary
+    private final int brandLimit;    // batas atas kode brand saat kolom dibuat
+
+    // Hasil turunan yang dihitung saat pertama kali diminta
+    private double[] sortedHarga;
+    private int[] byHarga;
+    private int[] byStok;
+
+    CatalogColumns(CatalogSnapshot snapshot, long version) {
+        this.version = version;
+        List<Barang> list = snapshot.getItems();
+        int n = list.size();
+        items = list.toArray(new Barang[0]);
+        harga = new double[n];
+        stok = new int[n];
+        brandCode = new int[n];
+        int limit = 0;
+        for (int i = 0; i < n; i++) {
+            Barang b = items[i];
+            harga[i] = b.getHarga();
+            stok[i] = b.getStok();
+            brandCode[i] = b.getBrandCode();
+            if (brandCode[i] >= limit) limit = brandCode[i] + 1;
+        }
+        brandLimit = limit;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public Barang get(int i) {
+        return items[i];
+    }
+
+    public double getHarga(int i) {
+        return harga[i];
+    }
+
+    public int getStok(int i) {
+        return stok[i];
+    }
+
+    public String getBrand(int i) {
+        return BrandDictionary.name(brandCode[i]);
+    }
+
+    public int getBrandCode(int i) {
+        return brandCode[i];
+    }
+
+    // Jumlah barang dengan kode brand tertentu (perbandingan int saja)
+    public int countBrand(int code) {
+        int n = 0;
+        for (int c : brandCode) if (c == code) n++;
+        return n;
+    }
+
+    // ================================
+    //      AGREGAT
+    // ================================
+
+    // Total nilai inventori: jumlah harga x stok
+    public double totalNilai() {
+        double sum = 0;
+        for (int i = 0; i < harga.length; i++) sum += harga[i] * stok[i];
+        return sum;
+    }
+
+    public long totalStok() {
+        long sum = 0;
+        for (int s : stok) sum += s;
+        return sum;
+    }
+
+    // Jumlah stok per brand (urutan kode kamus; hanya brand yang ada di katalog)
+    public Map<String, Long> stokPerBrand() {
+        long[] sums = new long[brandLimit];
+        boolean[] present = new boolean[brandLimit];
+        for (int i = 0; i < stok.length; i++) {
+            sums[brandCode[i]] += stok[i];
+            present[brandCode[i]] = true;
+        }
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (int c = 0; c < brandLimit; c++) if (present[c]) out.put(BrandDictionary.name(c), sums[c]);
+        return out;
+    }
+
+    // Nilai inventori per brand
+    public Map<String, Double> nilaiPerBrand() {
+        double[] sums = new double[brandLimit];
+        boolean[] present = new boolean[brandLimit];
+        for (int i = 0; i < stok.length; i++) {
+            sums[brandCode[i]] += harga[i] * stok[i];
+            present[brandCode[i]] = true;
+        }
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (int c = 0; c < brandLimit; c++) if (present[c]) out.put(BrandDictionary.name(c), sums[c]);
+        return out;
+    }
+
+    // Persentil harga (p = 0..100), metode nearest-rank; NaN jika katalog kosong.
+    // Pengurutan dilakukan sekali, persentil berikutnya O(1).
+    public synchronized double persentilHarga(double p) {
+        if (harga.length == 0) return Double.NaN;
+        if (sortedHarga == null) {
+            sortedHarga = harga.clone();
+            Arrays.sort(sortedHarga);
+        }
+        int rank = (int) Math.ceil(Math.max(0, Math.min(100, p)) / 100.0 * sortedHarga.length);
+        return sortedHarga[Math.max(0, rank - 1)];
+    }
+
+    // ================================
+    //      PENGURUTAN (hasil: urutan indeks baris)
+    // ================================
+
+    // Indeks barang terurut harga naik (stabil); dibalik untuk urutan turun
+    public synchronized int[] urutHarga() {
+        if (byHarga == null) {
+            // Kunci double diubah ke long tak bertanda yang urutannya sama, lalu diurutkan bersama indeks
+            long[] keys = new long[harga.length];
+            for (int i = 0; i < keys.length; i++) {
+                long bits = Double.doubleToLongBits(harga[i]);
+                keys[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+            }
+            byHarga = sortIndex(keys);
+        }
+        return byHarga.clone();
+    }
+
+    // Indeks barang terurut stok naik (stabil): stok dan indeks dipadatkan ke satu long
+    public synchronized int[] urutStok() {
+        if (byStok == null) {
+            long[] packed = new long[stok.length];
+            for (int i = 0; i < packed.length; i++) packed[i] = ((long) stok[i] << 32) | i;
+            Arrays.sort(packed);
+            byStok = new int[packed.length];
+            for (int i = 0; i < packed.length; i++) byStok[i] = (int) packed[i];
+        }
+        return byStok.clone();
+    }
+
+    // Radix sort (LSD, digit 16 bit) indeks berdasarkan kunci long: stabil, tanpa perbandingan.
+    // Digit yang sama untuk semua kunci (mis. bit atas harga) dilewati.
+    private static int[] sortIndex(long[] keys) {
+        int n = keys.length;
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++) idx[i] = i;
+        int[] tmp = new int[n];
+        int[] count = new int[1 << 16];
+        for (int shift = 0; shift < 64; shift += 16) {
+            Arrays.fill(count, 0);
+            for (long k : keys) count[(int) (k >>> shift) & 0xFFFF]++;
+            if (n == 0 || count[(int) (keys[0] >>> shift) & 0xFFFF] == n) continue;
+            int sum = 0;
+            for (int d = 0; d < count.length; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int id = idx[i];
+                tmp[count[(int) (keys[id] >>> shift) & 0xFFFF]++] = id;
+            }
+            int[] t = idx; idx = tmp; tmp = t;
+        }
+        return idx;
+    }
+}
@@ -0,0 +1,298 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Import/export katalog dalam format CSV (RFC 4180) secara streaming.
+// Kolom yang berisi koma, tanda kutip, atau baris baru diapit tanda kutip ("" = satu tanda kutip),
+// jadi nama/deskripsi seperti "Ringan, tidak lengket" tetap utuh bolak-balik; record dengan jumlah
+// kolom selain enam ditolak. (barang.txt sendiri tetap memakai format lamanya.)
+// Import membaca per record, memvalidasi, lalu meng-upsert lewat ListBarang dalam batch kecil
+// (memori terbatas), dan file katalog hanya disimpan sekali di akhir; selama import kunci file
+// dipegang, jadi proses lain tidak bisa menulis (dan memicu reload yang membuang baris yang belum
+// disimpan) sampai import selesai. Baris yang ditolak
+// ditulis ke file reject beserta alasannya, sehingga bisa diperbaiki lalu diimport ulang.
+// Export menulis langsung dari katalog ke file tanpa membangun seluruh isi sebagai String.
+public class CatalogCsv {
+    public static final String HEADER = "ID,Nama,Harga,Stok,Deskripsi,Brand";
+    private static final int BATCH_SIZE = 5000; // baris per batch upsert
+    private static final int FIELDS = 6;         // ID,Nama,Harga,Stok,Deskripsi,Brand
+
+    // Laporan kemajuan: done/total dalam byte (import) atau baris (export)
+    public interface Progress {
+        void update(long done, long total, int ok, int rejected);
+    }
+
+    // Ringkasan hasil import
+    public static final class Result {
+        public int imported = 0;
+        public int rejected = 0;
+
+        @Override
+        public String toString() {
+            return imported + " baris diimport, " + rejected + " baris ditolak";
+        }
+    }
+
+    private CatalogCsv() {}
+
+    // Import CSV ke katalog. rejectFile boleh null (baris yang ditolak hanya dihitung).
+    public static Result importCsv(ListBarang listBarang, File csv, File rejectFile, Progress progress) throws IOException {
+        return listBarang.withFileLock(() -> importLocked(listBarang, csv, rejectFile, progress));
+    }
+
+    private static Result importLocked(ListBarang listBarang, File csv, File rejectFile, Progress progress) throws IOException {
+        Result res = new Result();
+        long total = csv.length();
+        try (CountingInputStream in = new CountingInputStream(new FileInputStream(csv));
+             CsvReader rd = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+             BufferedWriter reject = rejectFile == null ? null : new BufferedWriter(
+                     new OutputStreamWriter(new FileOutputStream(rejectFile, false), StandardCharsets.UTF_8))) {
+            BarangBatch batch = new BarangBatch();
+            // Record asli & nomor barisnya per batch, untuk ditulis ke reject jika ditolak ListBarang
+            List<String> batchLines = new ArrayList<>(BATCH_SIZE);
+            List<Long> batchLineNos = new ArrayList<>(BATCH_SIZE);
+            while (rd.next()) {
+                String line = rd.raw;
+                String t = line.trim();
+                if (t.isEmpty() || t.startsWith("#")) continue;
+                if (rd.startLine == 1 && rd.fields.get(0).equalsIgnoreCase("ID")) continue; // baris judul kolom
+
+                String reason = rd.error;
+                Barang b = null;
+                if (reason == null && rd.fields.size() != FIELDS)
+                    reason = "jumlah kolom " + rd.fields.size() + ", seharusnya " + FIELDS;
+                if (reason == null) {
+                    b = toBarang(rd.fields);
+                    if (b == null) reason = "harga/stok bukan angka";
+                    else if (b.getHarga() < 0 || b.getStok() < 0) reason = "harga/stok negatif";
+                }
+                if (reason != null) {
+                    res.rejected++;
+                    writeReject(reject, rd.startLine, reason, line);
+                    continue;
+                }
+
+                batch.upsert(b);
+                batchLines.add(line);
+                batchLineNos.add(rd.startLine);
+                if (batch.size() >= BATCH_SIZE) {
+                    flush(listBarang, batch, batchLines, batchLineNos, reject, res);
+                    batch = new BarangBatch();
+                    batchLines.clear();
+                    batchLineNos.clear();
+                    if (progress != null) progress.update(in.count, total, res.imported, res.rejected);
+                }
+            }
+            flush(listBarang, batch, batchLines, batchLineNos, reject, res);
+        } finally {
+            // Satu kali simpan untuk seluruh import (juga jika import berhenti di tengah karena error)
+            if (res.imported > 0) listBarang.saveData();
+        }
+        if (progress != null) progress.update(total, total, res.imported, res.rejected);
+        return res;
+    }
+
+    private static void flush(ListBarang listBarang, BarangBatch batch, List<String> lines, List<Long> lineNos,
+                              BufferedWriter reject, Result res) throws IOException {
+        if (batch.isEmpty()) return;
+        List<String> errors = listBarang.applyBatch(batch, false);
+        if (errors.isEmpty()) {
+            res.imported += batch.size();
+            return;
+        }
+        // Batch bersifat all-or-nothing dan tidak ada yang diterapkan: ulangi per record, sehingga hanya
+        // record yang benar-benar gagal yang masuk file reject (jarang terjadi, setiap record sudah
+        // divalidasi sebelum masuk batch)
+        List<BarangBatch.Op> ops = batch.getOps();
+        for (int i = 0; i < ops.size(); i++) {
+            BarangBatch single = new BarangBatch();
+            single.upsert(ops.get(i).barang);
+            List<String> err = listBarang.applyBatch(single, false);
+            if (err.isEmpty()) {
+                res.imported++;
+            } else {
+                res.rejected++;
+                writeReject(reject, lineNos.get(i), String.join("; ", err), lines.get(i));
+            }
+        }
+    }
+
+    // Enam kolom CSV -> Barang; null jika harga/stok bukan angka
+    private static Barang toBarang(List<String> f) {
+        try {
+            double harga = Double.parseDouble(f.get(2).trim());
+            if (Double.isNaN(harga) || Double.isInfinite(harga)) return null;
+            int stok = Integer.parseInt(f.get(3).trim());
+            return new Barang(f.get(0).trim(), f.get(1), harga, stok, f.get(4), f.get(5).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeReject(BufferedWriter reject, long lineNo, String reason, String line) throws IOException {
+        if (reject == null) return;
+        reject.write("# baris " + lineNo + ": " + reason);
+        reject.newLine();
+        reject.write(line);
+        reject.newLine();
+    }
+
+    // Export seluruh katalog ke CSV (dengan baris judul kolom)
+    public static int exportCsv(ListBarang listBarang, File csv, Progress progress) throws IOException {
+        int total = listBarang.getBarangList().size();
+        int[] done = {0};
+        try (BufferedWriter bw = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(csv, false), StandardCharsets.UTF_8))) {
+            bw.write(HEADER);
+            bw.newLine();
+            listBarang.forEachBarang(b -> {
+                try {
+                    writeRow(bw, b);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (++done[0] % BATCH_SIZE == 0 && progress != null) progress.update(done[0], total, done[0], 0);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (progress != null) progress.update(done[0], done[0], done[0], 0);
+        return done[0];
+    }
+
+    // Satu baris export; teks ditulis apa adanya (dikutip bila perlu), tidak lagi dibersihkan dari koma
+    private static void writeRow(BufferedWriter bw, Barang b) throws IOException {
+        bw.write(quote(b.getId()));
+        bw.write(',');
+        bw.write(quote(b.getNama()));
+        bw.write(',');
+        bw.write(String.valueOf(b.getHarga()));
+        bw.write(',');
+        bw.write(String.valueOf(b.getStok()));
+        bw.write(',');
+        bw.write(quote(b.getDeskripsi()));
+        bw.write(',');
+        bw.write(quote(b.getBrand()));
+        bw.newLine();
+    }
+
+    // Kolom yang berisi koma, tanda kutip, baris baru, atau spasi di tepi diapit tanda kutip
+    static String quote(String s) {
+        if (s == null || s.isEmpty()) return "";
+        boolean need = s.charAt(0) == ' ' || s.charAt(s.length() - 1) == ' ';
+        for (int i = 0; i < s.length() && !need; i++) {
+            char c = s.charAt(i);
+            need = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        return need ? '"' + s.replace("\"", "\"\"") + '"' : s;
+    }
+
+    // Pembaca record CSV (RFC 4180). Kolom berkutip boleh berisi koma, "" (satu tanda kutip), dan
+    // baris baru, sehingga satu record bisa terdiri dari beberapa baris file. Kolom tanpa kutip di-trim.
+    private static final class CsvReader implements Closeable {
+        private final BufferedReader br;
+        private long lineNo = 0;
+        long startLine;                        // nomor baris awal record terakhir
+        String raw;                            // teks asli record terakhir (untuk file reject)
+        String error;                          // alasan jika record tidak valid, null jika valid
+        final List<String> fields = new ArrayList<>(FIELDS);
+
+        CsvReader(BufferedReader br) {
+            this.br = br;
+        }
+
+        // Membaca record berikutnya; false jika file sudah habis
+        boolean next() throws IOException {
+            String line = br.readLine();
+            if (line == null) return false;
+            startLine = ++lineNo;
+            raw = line;
+            error = null;
+            fields.clear();
+
+            StringBuilder f = new StringBuilder();
+            boolean quoted = false;  // sedang di dalam kolom berkutip
+            boolean closed = false;  // kolom ini berkutip dan kutipnya sudah ditutup
+            StringBuilder rawMulti = null;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) break;
+                    // Kolom berkutip berlanjut ke baris berikutnya
+                    String more = br.readLine();
+                    if (more == null) {
+                        error = "tanda kutip tidak ditutup";
+                        break;
+                    }
+                    lineNo++;
+                    if (rawMulti == null) rawMulti = new StringBuilder(raw);
+                    rawMulti.append('\n').append(more);
+                    f.append('\n');
+                    line = more;
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        f.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        f.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                        closed = true;
+                    }
+                } else if (c == ',') {
+                    fields.add(closed ? f.toString() : f.toString().trim());
+                    f.setLength(0);
+                    closed = false;
+                } else if (closed) {
+                    if (c != ' ' && c != '\t' && error == null) error = "teks setelah tanda kutip penutup";
+                } else if (c == '"' && isBlank(f)) {
+                    quoted = true;
+                    f.setLength(0);
+                } else {
+                    f.append(c);
+                }
+            }
+            fields.add(closed || quoted ? f.toString() : f.toString().trim());
+            if (rawMulti != null) raw = rawMulti.toString();
+            return true;
+        }
+
+        private static boolean isBlank(StringBuilder sb) {
+            for (int i = 0; i < sb.length(); i++) if (sb.charAt(i) > ' ') return false;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            br.close();
+        }
+    }
+
+    // Menghitung byte yang sudah dibaca (untuk progres import)
+    private static final class CountingInputStream extends FilterInputStream {
+        volatile long count = 0;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
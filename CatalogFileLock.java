@@ -0,0 +1,78 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+// Kunci antar-proses untuk barang.txt (GUI MainFrame dan CLI Main bisa memakai file yang sama).
+// Dikunci lewat FileChannel.lock() pada file "<data>.lock". Di dalam satu JVM kunci ini dipakai
+// bersama: thread pertama yang masuk mengambil kunci OS, thread terakhir yang keluar melepasnya.
+// Thread dalam satu proses sudah saling diatur oleh lock di ListBarang, jadi yang perlu dicegah
+// hanya proses lain menulis di saat yang sama.
+public class CatalogFileLock {
+    // Satu objek per file: FileLock tidak boleh diambil dua kali pada file yang sama dalam satu JVM
+    private static final Map<String, CatalogFileLock> LOCKS = new HashMap<>();
+
+    private final File lockFile;
+    private FileChannel channel;
+    private FileLock lock;
+    private int holders = 0;
+    private volatile long generation = 0; // naik setiap kali kunci OS diambil atau pemiliknya berganti
+    private Object lastOwner;
+
+    private CatalogFileLock(File lockFile) {
+        this.lockFile = lockFile;
+    }
+
+    // Kunci untuk file data tertentu (mis. barang.txt -> barang.txt.lock)
+    public static CatalogFileLock forFile(File dataFile) {
+        File lockFile = new File(dataFile.getAbsolutePath() + ".lock");
+        String key;
+        try {
+            key = lockFile.getCanonicalPath();
+        } catch (IOException e) {
+            key = lockFile.getAbsolutePath();
+        }
+        synchronized (LOCKS) {
+            return LOCKS.computeIfAbsent(key, k -> new CatalogFileLock(lockFile));
+        }
+    }
+
+    // Masuk ke bagian penulisan; memblok sampai proses lain melepas kuncinya.
+    // owner = objek penulis (mis. ListBarang), agar dua objek pada file yang sama di satu JVM
+    // juga saling tahu bahwa yang lain mungkin sudah menulis
+    public synchronized void acquire(Object owner) {
+        if (owner != lastOwner) {
+            lastOwner = owner;
+            generation++;
+        }
+        if (holders++ > 0) return;
+        try {
+            if (channel == null || !channel.isOpen())
+                channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lock = channel.lock();
+            generation++;
+        } catch (IOException e) {
+            // Tetap jalan tanpa kunci antar-proses (mis. folder read-only)
+            System.err.println("Gagal mengunci " + lockFile + ": " + e.getMessage());
+            lock = null;
+        }
+    }
+
+    public synchronized void release() {
+        if (holders == 0 || --holders > 0) return;
+        try {
+            if (lock != null) lock.release();
+        } catch (IOException e) {
+            System.err.println("Gagal melepas kunci " + lockFile + ": " + e.getMessage());
+        }
+        lock = null;
+    }
+
+    // Dipakai untuk tahu apakah proses lain mungkin menulis sejak terakhir kali dicek
+    public long getGeneration() {
+        return generation;
+    }
+}
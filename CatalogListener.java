@@ -0,0 +1,20 @@
+// Pendengar perubahan katalog ListBarang (dipakai indeks pencarian agar diperbarui bertahap).
+// Dipanggil saat lock katalog dipegang: jangan memanggil balik ListBarang.
+public interface CatalogListener {
+    // Barang baru masuk ke katalog
+    void barangAdded(Barang b);
+
+    // Barang keluar dari katalog
+    void barangRemoved(Barang b);
+
+    // Barang diganti objek baru (edit / ubah harga)
+    void barangReplaced(Barang old, Barang baru);
+
+    // Katalog dimuat ulang seluruhnya dari file (potret baru sudah diterbitkan)
+    void catalogReloaded(CatalogSnapshot snapshot);
+
+    // Stok barang berubah di tempat (checkout, restock, jurnal proses lain). Bisa dipanggil
+    // dari beberapa thread checkout sekaligus; default diabaikan (indeks teks tidak butuh stok).
+    default void stockChanged(Barang b) {
+    }
+}
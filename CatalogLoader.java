@@ -0,0 +1,203 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Membaca barang.txt menjadi daftar Barang.
+// File kecil dibaca berurutan lewat satu buffer karakter; file besar (ekspor jutaan baris)
+// dipecah menjadi rentang byte yang selalu berakhir di batas baris, di-parse paralel
+// di ForkJoinPool, lalu hasilnya digabung sesuai urutan di file.
+public class CatalogLoader {
+    // Di atas ukuran ini pembacaan paralel dipakai (jika ada lebih dari satu core)
+    public static final long PARALLEL_THRESHOLD = 4L << 20;
+    private static final int MIN_CHUNK = 1 << 20;
+    private static final int MAX_CHUNK = 1 << 28; // satu potongan dibaca ke satu buffer (dibatasi ukuran array)
+
+    // Hasil pembacaan file katalog
+    public static final class Result {
+        public final List<Barang> items = new ArrayList<>();
+        public long headerSeq = 0; // nilai "# seq=N" pada snapshot (0 jika tidak ada)
+        public int headerId = 0;   // nilai "id=M": ID angka tertinggi yang pernah dibagikan
+        public int bad = 0;        // jumlah baris tidak valid yang dilewati
+
+        // Menggabungkan hasil potongan berikutnya (urutan file tetap terjaga)
+        void append(Result next) {
+            items.addAll(next.items);
+            headerSeq = Math.max(headerSeq, next.headerSeq);
+            headerId = Math.max(headerId, next.headerId);
+            bad += next.bad;
+        }
+    }
+
+    // Memilih cara baca sesuai ukuran file
+    public static Result read(File f) throws IOException {
+        if (f.length() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1)
+            return readParallel(f, ForkJoinPool.commonPool());
+        return readSequential(f);
+    }
+
+    // Pembacaan berurutan (charset sama seperti FileReader)
+    public static Result readSequential(File f) throws IOException {
+        Result res = new Result();
+        try (Reader r = new InputStreamReader(new FileInputStream(f))) {
+            char[] buf = new char[1 << 16];
+            int len = 0, scanFrom = 0;
+            while (true) {
+                int n = r.read(buf, len, buf.length - len);
+                boolean eof = n < 0;
+                if (!eof) len += n;
+
+                int start = parseLines(buf, 0, scanFrom, len, res);
+                if (eof) {
+                    if (start < len) parseLine(buf, start, len, res);
+                    return res;
+                }
+
+                // Sisa baris yang belum lengkap dipindah ke depan (buffer diperbesar jika satu baris memenuhinya)
+                int rest = len - start;
+                if (rest == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+                else System.arraycopy(buf, start, buf, 0, rest);
+                len = rest;
+                scanFrom = rest;
+            }
+        }
+    }
+
+    // Pembacaan paralel: file dipecah menjadi sekitar 4 potongan per thread pool
+    public static Result readParallel(File f, ForkJoinPool pool) throws IOException {
+        try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            long wanted = Math.max(1, Math.min(pool.getParallelism() * 4L, size / MIN_CHUNK));
+            int chunks = (int) Math.max(wanted, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+            long[] bounds = new long[chunks + 1];
+            bounds[chunks] = size;
+            for (int k = 1; k < chunks; k++)
+                bounds[k] = Math.max(bounds[k - 1], nextLineStart(ch, k * size / chunks, size));
+
+            try {
+                return pool.invoke(new ChunkTask(ch, bounds, 0, chunks));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // Posisi awal baris berikutnya setelah pos ('\n' tidak pernah muncul di tengah karakter multibyte)
+    private static long nextLineStart(FileChannel ch, long pos, long size) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(8192);
+        while (pos < size) {
+            b.clear();
+            int n = ch.read(b, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) if (b.get(i) == '\n') return pos + i + 1;
+            pos += n;
+        }
+        return size;
+    }
+
+    // Membagi rentang potongan secara rekursif; daun mem-parse satu rentang byte
+    private static final class ChunkTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel ch;
+        private final long[] bounds;
+        private final int lo, hi;
+
+        ChunkTask(FileChannel ch, long[] bounds, int lo, int hi) {
+            this.ch = ch;
+            this.bounds = bounds;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Result compute() {
+            if (hi - lo == 1) {
+                try {
+                    return parseRange(ch, bounds[lo], bounds[hi]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int mid = (lo + hi) >>> 1;
+            ChunkTask left = new ChunkTask(ch, bounds, lo, mid);
+            left.fork();
+            Result right = new ChunkTask(ch, bounds, mid, hi).compute();
+            Result res = left.join();
+            res.append(right);
+            return res;
+        }
+    }
+
+    private static Result parseRange(FileChannel ch, long from, long to) throws IOException {
+        Result res = new Result();
+        if (to <= from) return res;
+        // Batas potongan mengikuti akhir baris, jadi potongan bisa melebihi MAX_CHUNK jika ada satu baris raksasa
+        if (to - from > Integer.MAX_VALUE - 8)
+            throw new IOException("Baris terlalu panjang di sekitar byte " + from);
+        ByteBuffer bytes = ByteBuffer.allocate((int) (to - from));
+        while (bytes.hasRemaining()) {
+            if (ch.read(bytes, from + bytes.position()) < 0) break;
+        }
+        bytes.flip();
+        CharBuffer chars = Charset.defaultCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(bytes);
+        char[] buf = chars.array();
+        int end = chars.arrayOffset() + chars.limit();
+        int start = parseLines(buf, chars.arrayOffset(), chars.arrayOffset(), end, res);
+        if (start < end) parseLine(buf, start, end, res);
+        return res;
+    }
+
+    // Mem-parse semua baris lengkap di buf; mengembalikan awal baris yang belum lengkap
+    private static int parseLines(char[] buf, int start, int scanFrom, int len, Result res) {
+        for (int i = scanFrom; i < len; i++) {
+            char c = buf[i];
+            if (c == '\n' || c == '\r') {
+                parseLine(buf, start, i, res);
+                start = i + 1;
+            }
+        }
+        return start;
+    }
+
+    private static void parseLine(char[] buf, int from, int to, Result res) {
+        if (from < to && buf[from] == '#') {
+            readHeader(new String(buf, from, to - from), res);
+            return;
+        }
+        // Parsing fleksibel mendukung CSV lama & format baru
+        Barang b = Barang.parse(buf, from, to);
+        if (b != null) {
+            res.items.add(b);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            if (buf[i] > ' ') {
+                res.bad++; // baris kosong bukan kesalahan
+                return;
+            }
+        }
+    }
+
+    // Header snapshot "# seq=N id=M": entri jurnal dengan seq <= N sudah termasuk di file,
+    // M = batas atas ID otomatis yang sudah pernah dipakai
+    private static void readHeader(String line, Result res) {
+        for (String token : line.substring(1).trim().split("\\s+")) {
+            try {
+                if (token.startsWith("seq=")) res.headerSeq = Long.parseLong(token.substring(4));
+                else if (token.startsWith("id=")) res.headerId = Integer.parseInt(token.substring(3));
+            } catch (NumberFormatException ignored) {}
+        }
+    }
+}
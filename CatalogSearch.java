@@ -0,0 +1,70 @@
+import java.util.List;
+
+// Pintu masuk fitur pencarian katalog (didapat dari ListBarang.getSearch()).
+// Mendengarkan perubahan ListBarang sehingga indeks selalu mengikuti katalog tanpa dibangun ulang.
+// Jika pencarian persis tidak menemukan apa pun, kata yang salah ketik dikoreksi lewat FuzzyIndex.
+public class CatalogSearch implements CatalogListener {
+    public static final int DEFAULT_LIMIT = 50;
+
+    private final SearchIndex index = new SearchIndex();
+    private final FuzzyIndex fuzzy = new FuzzyIndex();
+
+    CatalogSearch(CatalogSnapshot snapshot) {
+        index.rebuild(snapshot.getItems());
+        fuzzy.rebuild(snapshot.getItems());
+    }
+
+    // Barang yang cocok dengan semua kata pada query, urut relevansi.
+    // Tidak ada hasil -> coba lagi dengan kata yang dikoreksi ("sunscren" -> "sunscreen")
+    public List<Barang> search(String query, int limit) {
+        List<Barang> hits = index.search(query, limit);
+        if (!hits.isEmpty()) return hits;
+        String corrected = didYouMean(query);
+        return corrected == null ? hits : index.search(corrected, limit);
+    }
+
+    public List<Barang> search(String query) {
+        return search(query, DEFAULT_LIMIT);
+    }
+
+    // Query hasil koreksi salah ketik, atau null jika semua kata sudah dikenal / tidak ada yang mirip
+    public String didYouMean(String query) {
+        return fuzzy.correct(query, index::contains);
+    }
+
+    public SearchIndex getIndex() {
+        return index;
+    }
+
+    public FuzzyIndex getFuzzy() {
+        return fuzzy;
+    }
+
+    // ================================
+    //      PERUBAHAN KATALOG
+    // ================================
+
+    @Override
+    public void barangAdded(Barang b) {
+        index.add(b);
+        fuzzy.add(b);
+    }
+
+    @Override
+    public void barangRemoved(Barang b) {
+        index.remove(b);
+        fuzzy.remove(b);
+    }
+
+    @Override
+    public void barangReplaced(Barang old, Barang baru) {
+        index.replace(old, baru);
+        fuzzy.replace(old, baru);
+    }
+
+    @Override
+    public void catalogReloaded(CatalogSnapshot snapshot) {
+        index.rebuild(snapshot.getItems());
+        fuzzy.rebuild(snapshot.getItems());
+    }
+}
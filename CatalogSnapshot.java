@@ -0,0 +1,39 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Potret katalog yang tidak pernah berubah setelah diterbitkan (copy-on-write).
+// ListBarang membuat potret baru setiap kali struktur katalog berubah (load, tambah, hapus, edit)
+// lalu menerbitkannya lewat satu field volatile, sehingga pembaca tidak perlu lock dan tidak
+// pernah melihat list yang setengah terisi. Stok tetap dibaca langsung dari Barang (CAS).
+public final class CatalogSnapshot {
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(Collections.emptyList(), Collections.emptyMap(), 0);
+
+    private final List<Barang> items;
+    private final Map<String, Barang> index;
+    private final long version;
+
+    // items & index harus salinan milik potret ini sendiri (tidak dipakai ulang oleh penulis)
+    CatalogSnapshot(List<Barang> items, Map<String, Barang> index, long version) {
+        this.items = Collections.unmodifiableList(items);
+        this.index = Collections.unmodifiableMap(index);
+        this.version = version;
+    }
+
+    public List<Barang> getItems() {
+        return items;
+    }
+
+    public Barang get(String id) {
+        return id == null ? null : index.get(id);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    // Versi katalog saat potret ini diterbitkan
+    public long getVersion() {
+        return version;
+    }
+}
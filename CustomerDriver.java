@@ -78,9 +78,19 @@ public class CustomerDriver extends Driver {
                 // 1. TAMPILKAN DAFTAR BARANG
                 // =======================
                 case 1:
+                    // kosong = semua barang, selain itu cari lewat indeks kata (nama/brand/deskripsi)
+                    System.out.print("Cari (kosong = semua): ");
+                    String query = sc.nextLine().trim();
+                    FacetIndex.Result hasil = listBarang.cari(query, new FacetIndex.Filter());
+                    List<Barang> shown = hasil.items;
+                    if (hasil.koreksi != null && !shown.isEmpty()) System.out.println("Menampilkan hasil untuk: " + hasil.koreksi);
+                    if (shown.isEmpty()) {
+                        System.out.println("Tidak ada barang yang cocok.");
+                        break;
+                    }
                     System.out.println("Daftar Barang:");
                     printHeader();
-                    for (Barang barang : listBarang.getBarangList()) {
+                    for (Barang barang : shown) {
                         printRow(
                             truncate(barang.getId(), W_ID),
                             truncate(barang.getNama(), W_NAME),
@@ -91,6 +101,8 @@ public class CustomerDriver extends Driver {
                         );
                     }
                     printSeparator();
+                    if (hasil.isTruncated())
+                        System.out.println("Menampilkan " + shown.size() + " dari " + hasil.total + " barang, perjelas kata kunci untuk mempersempit.");
                     break;
 
                 case 2:
@@ -231,12 +243,19 @@ public class CustomerDriver extends Driver {
                             continue;
                     }
 
-                    // Buat list Barang untuk transaksi sesuai qty yang dipilih
-                    List<Barang> itemsForTransaction = new ArrayList<>();
+                    // kurangi stok seluruh barang terpilih sekaligus (all-or-nothing) sebelum transaksi dibuat
+                    if (!listBarang.reserve(qtyToCheckout)) {
+                        System.out.println("Checkout gagal: stok tidak cukup untuk salah satu barang.");
+                        break;
+                    }
+
+                    // Satu baris transaksi per barang sesuai qty yang dipilih
+                    List<LineItem> itemsForTransaction = new ArrayList<>();
                     for (CartItem ci : selectedCartItems) {
                         String id = ci.getBarang().getId();
                         int q = qtyToCheckout.getOrDefault(id, 0);
-                        for (int i = 0; i < q; i++) itemsForTransaction.add(ci.getBarang());
+                        Barang current = listBarang.getBarang(id); // harga terbaru, bukan saat masuk keranjang
+                        if (q > 0) itemsForTransaction.add(new LineItem(current != null ? current : ci.getBarang(), q));
                     }
 
                     Transaksi transaksi = new Transaksi(customer, itemsForTransaction);
@@ -244,14 +263,6 @@ public class CustomerDriver extends Driver {
                     customer.getInvoiceSelesai().add(invoice);
                     adminDriver.approveTransaksi(transaksi);
 
-                    // kurangi stok di inventory sesuai qty yang di-checkout
-                    for (Map.Entry<String, Integer> e : qtyToCheckout.entrySet()) {
-                        String id = e.getKey();
-                        int q = e.getValue();
-                        boolean ok = listBarang.reduceStock(id, q);
-                        if (!ok) System.out.println("Peringatan: gagal mengurangi stok untuk ID " + id);
-                    }
-
                     // Perbarui keranjang: kurangi qty sesuai yang dibayar atau hapus item jika qty habis
                     for (CartItem ci : selectedCartItems) {
                         String id = ci.getBarang().getId();
@@ -263,7 +274,7 @@ public class CustomerDriver extends Driver {
                         }
                     }
 
-                    int totalUnits = itemsForTransaction.size();
+                    int totalUnits = transaksi.getTotalQty();
                     System.out.println("Checkout berhasil untuk " + totalUnits + " unit dari " + selectedCartItems.size() + " item.");
                     break;
 
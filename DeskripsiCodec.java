@@ -0,0 +1,77 @@
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Pemadat deskripsi barang untuk mode deskripsi lazy.
+// Deskripsi disimpan sebagai byte Deflate (dengan kamus frasa yang sering muncul di katalog)
+// dan baru dibuka saat getDeskripsi() dipanggil, mis. ketika popup detail dibuka.
+// Format: 4 byte panjang UTF-8 asli, lalu data Deflate mentah.
+final class DeskripsiCodec {
+    // Kamus awal: frasa umum deskripsi skincare. Frasa paling sering ditaruh di akhir
+    // (Deflate memberi jarak referensi terpendek ke bagian akhir kamus).
+    private static final byte[] DICTIONARY = (
+            "wajah tampak lebih cerah halus sehat glowing noda hitam jerawat pori-pori "
+            + "antioksidan radikal bebas sinar UVA/UVB SPF50+ perlindungan tinggi "
+            + "tidak lengket mudah meresap cepat meresap tekstur ringan Teksturnya ringan "
+            + "lembut lembap nyaman terhidrasi segar menenangkan kulit kering berminyak sensitif "
+            + "Cocok untuk penggunaan harian dan semua jenis kulit sepanjang hari. "
+            + "membantu menjaga membuat kulit tetap adalah skincare yang diformulasikan untuk "
+    ).getBytes(StandardCharsets.UTF_8);
+
+    // Deflater/Inflater mahal dibuat, jadi dipakai ulang per thread
+    private static final ThreadLocal<Deflater> DEFLATER =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATER =
+            ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private DeskripsiCodec() {}
+
+    // Memadatkan teks; null jika hasilnya tidak lebih kecil (teks pendek lebih hemat disimpan apa adanya)
+    static byte[] pack(String s) {
+        byte[] raw = s.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < 64) return null;
+        Deflater d = DEFLATER.get();
+        d.reset();
+        d.setDictionary(DICTIONARY);
+        d.setInput(raw);
+        d.finish();
+        byte[] buf = new byte[raw.length + 4];
+        int n = 4;
+        while (!d.finished()) {
+            if (n == buf.length) return null; // tidak lebih kecil dari aslinya
+            n += d.deflate(buf, n, buf.length - n);
+        }
+        if (n >= raw.length) return null;
+        buf[0] = (byte) (raw.length >>> 24);
+        buf[1] = (byte) (raw.length >>> 16);
+        buf[2] = (byte) (raw.length >>> 8);
+        buf[3] = (byte) raw.length;
+        byte[] out = new byte[n];
+        System.arraycopy(buf, 0, out, 0, n);
+        return out;
+    }
+
+    // Membuka kembali hasil pack()
+    static String unpack(byte[] packed) {
+        int len = ((packed[0] & 0xFF) << 24) | ((packed[1] & 0xFF) << 16)
+                | ((packed[2] & 0xFF) << 8) | (packed[3] & 0xFF);
+        byte[] raw = new byte[len];
+        Inflater inf = INFLATER.get();
+        inf.reset();
+        inf.setDictionary(DICTIONARY); // raw Deflate: kamus dipasang sebelum inflate
+        inf.setInput(packed, 4, packed.length - 4);
+        try {
+            int n = 0;
+            while (n < len) {
+                int r = inf.inflate(raw, n, len - n);
+                if (r == 0 && (inf.finished() || inf.needsInput())) break;
+                n += r;
+            }
+            if (n != len) throw new DataFormatException("panjang tidak cocok");
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Deskripsi terpadatkan rusak: " + e.getMessage(), e);
+        }
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,6 @@
+// Tingkat ketahanan penulisan file data (snapshot barang.txt dan jurnal stok).
+public enum Durability {
+    NONE,     // tanpa fsync: paling cepat, data terakhir bisa hilang bila mesin mati mendadak
+    FSYNC,    // fsync setiap kali tulis (setiap batch jurnal / setiap snapshot)
+    PERIODIC  // jurnal di-fsync paling lama tiap periode tertentu; snapshot tetap di-fsync
+}
@@ -0,0 +1,460 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Mesin filter (facet) katalog: brand, rentang harga, dan hanya yang tersedia.
+// Setiap barang mendapat nomor dokumen; tiap brand (kode kamus) punya BitSet dokumen, ada BitSet
+// barang yang stoknya > 0, dan indeks harga terurut (harga, dokumen) untuk rentang harga.
+// Filter apa pun diselesaikan dengan operasi AND/OR antar-BitSet, lalu jumlah per facet dihitung
+// dari hasil tanpa filter facet itu sendiri (jumlah brand tidak menyempit karena brand yang dipilih).
+// Perubahan katalog datang bertahap lewat CatalogListener: barang pengganti memakai nomor dokumen
+// yang sama, jadi edit hanya memindahkan bit brand yang berubah. Dokumen yang harganya berubah
+// dicatat dulu, lalu indeks harga diperbarui sekali sebelum query berikutnya (buang entri lama +
+// gabung entri baru yang sudah diurutkan), sehingga ubah harga massal tidak menggeser array per barang.
+// Perubahan stok (setiap checkout) tidak mengambil lock indeks: dokumennya cukup ditandai lewat CAS
+// pada bit "stok berubah", lalu bit "tersedia" dihitung ulang dari stok terkini saat query berikutnya.
+public class FacetIndex implements CatalogListener {
+
+    // Kriteria filter; kosong = seluruh katalog
+    public static final class Filter {
+        private final Set<String> brands = new LinkedHashSet<>();
+        private double minHarga = 0;
+        private double maxHarga = Double.POSITIVE_INFINITY;
+        private boolean inStockOnly;
+
+        // Tambah brand yang boleh tampil (beberapa brand = salah satunya)
+        public Filter brand(String brand) {
+            if (brand != null && !brand.isEmpty()) brands.add(brand);
+            return this;
+        }
+
+        public Filter harga(double min, double max) {
+            this.minHarga = min;
+            this.maxHarga = max;
+            return this;
+        }
+
+        public Filter inStock(boolean only) {
+            this.inStockOnly = only;
+            return this;
+        }
+
+        public Set<String> getBrands() {
+            return brands;
+        }
+
+        // Bentuk ternormalisasi (brand urut) untuk kunci cache
+        public String key() {
+            return new TreeSet<>(brands) + ";" + minHarga + ";" + maxHarga + ";" + inStockOnly;
+        }
+    }
+
+    // Hasil filter beserta jumlah per facet (tidak bisa diubah: bisa dibagi antar sesi lewat cache)
+    public static final class Result {
+        public final List<Barang> items;              // barang yang lolos semua filter, urut katalog
+        public final Map<String, Integer> brandCounts; // brand -> jumlah (filter harga & stok diterapkan)
+        public final int inStockCount;                // jumlah yang tersedia (filter brand & harga diterapkan)
+        public final int total;                       // jumlah seluruh barang yang lolos (items bisa dibatasi)
+        public final String koreksi;                  // query hasil koreksi ejaan yang dipakai, null jika tidak
+
+        Result(List<Barang> items, Map<String, Integer> brandCounts, int inStockCount) {
+            this(items, brandCounts, inStockCount, items.size(), null);
+        }
+
+        Result(List<Barang> items, Map<String, Integer> brandCounts, int inStockCount, int total, String koreksi) {
+            this.items = Collections.unmodifiableList(items);
+            this.brandCounts = Collections.unmodifiableMap(brandCounts);
+            this.inStockCount = inStockCount;
+            this.total = total;
+            this.koreksi = koreksi;
+        }
+
+        // true jika items hanya sebagian dari total (dibatasi CatalogSearch.DEFAULT_LIMIT)
+        public boolean isTruncated() {
+            return items.size() < total;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Barang, Integer> docOf = new IdentityHashMap<>();
+    private Barang[] docs = new Barang[16];
+    private int[] brandOf = new int[16];
+    private double[] hargaOf = new double[16];
+    private int docCount = 0;   // nomor dokumen berikutnya
+    private int removed = 0;    // jumlah tombstone
+
+    private final BitSet alive = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private BitSet[] byBrand = new BitSet[16];
+
+    // Indeks harga: pasangan (harga, dokumen) urut naik, untuk dokumen yang masih hidup
+    private double[] sortedHarga = new double[16];
+    private int[] sortedDoc = new int[16];
+    private int sortedSize = 0;
+    private final BitSet moved = new BitSet(); // dokumen yang posisinya di indeks harga belum diperbarui
+    private boolean hargaDirty;
+
+    // Dokumen yang stoknya berubah sejak query terakhir (1 bit per dokumen, diset lewat CAS)
+    private volatile AtomicLongArray stokBerubah = new AtomicLongArray(1);
+    private volatile boolean stokDirty;
+
+    FacetIndex(CatalogSnapshot snapshot) {
+        rebuild(snapshot.getItems());
+    }
+
+    public void rebuild(List<Barang> items) {
+        lock.writeLock().lock();
+        try {
+            docOf.clear();
+            int cap = Math.max(16, items.size());
+            docs = new Barang[cap];
+            brandOf = new int[cap];
+            hargaOf = new double[cap];
+            docCount = 0;
+            removed = 0;
+            alive.clear();
+            inStock.clear();
+            byBrand = new BitSet[Math.max(16, BrandDictionary.size())];
+            sortedSize = 0;
+            moved.clear();
+            stokBerubah = new AtomicLongArray(words(cap));
+            stokDirty = false;
+            for (Barang b : items) {
+                if (docOf.containsKey(b)) continue;
+                int doc = newDoc(b);
+                setBits(doc, b);
+            }
+            flushHarga(); // seluruh dokumen baru -> indeks harga disusun dengan satu kali sort
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ================================
+    //      QUERY
+    // ================================
+
+    // Barang yang lolos filter dari seluruh katalog
+    public Result query(Filter f) {
+        return query(f, null);
+    }
+
+    // Seperti query(f), tetapi hanya di antara barang dalam within (mis. hasil pencarian teks)
+    public Result query(Filter f, Collection<Barang> within) {
+        lock.writeLock().lock();
+        try {
+            if (hargaDirty) flushHarga();
+            if (stokDirty) flushStok();
+            lock.readLock().lock(); // turun ke read lock: query lain boleh berjalan bersamaan
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            BitSet base = (BitSet) alive.clone();
+            if (within != null) {
+                BitSet w = new BitSet(docCount);
+                for (Barang b : within) {
+                    Integer doc = docOf.get(b);
+                    if (doc != null) w.set(doc);
+                }
+                base.and(w);
+            }
+            if (f.minHarga > 0 || f.maxHarga != Double.POSITIVE_INFINITY) applyHarga(base, f.minHarga, f.maxHarga);
+
+            BitSet brandMask = null;
+            if (!f.brands.isEmpty()) {
+                brandMask = new BitSet(docCount);
+                for (String name : f.brands) {
+                    int code = BrandDictionary.find(name);
+                    if (code >= 0 && code < byBrand.length && byBrand[code] != null) brandMask.or(byBrand[code]);
+                }
+            }
+
+            // Jumlah tersedia: filter brand + harga, tanpa filter stok
+            BitSet forStock = base;
+            if (brandMask != null) {
+                forStock = (BitSet) base.clone();
+                forStock.and(brandMask);
+            }
+            BitSet tmp = (BitSet) forStock.clone();
+            tmp.and(inStock);
+            int inStockCount = tmp.cardinality();
+
+            // Jumlah per brand: filter harga + stok, tanpa filter brand
+            BitSet forBrand = base;
+            if (f.inStockOnly) forBrand.and(inStock);
+            int[] counts = new int[byBrand.length];
+            if (forBrand.equals(alive)) {
+                // Tanpa filter lain: jumlah per brand = isi BitSet brand itu sendiri
+                for (int c = 0; c < byBrand.length; c++) if (byBrand[c] != null) counts[c] = byBrand[c].cardinality();
+            } else {
+                for (int d = forBrand.nextSetBit(0); d >= 0; d = forBrand.nextSetBit(d + 1)) counts[brandOf[d]]++;
+            }
+            Map<String, Integer> brandCounts = new TreeMap<>();
+            for (int c = 0; c < counts.length; c++)
+                if (counts[c] > 0) brandCounts.put(BrandDictionary.name(c), counts[c]);
+
+            // Hasil akhir: semua filter
+            BitSet hits = forBrand;
+            if (brandMask != null) hits.and(brandMask);
+            List<Barang> items = new ArrayList<>(hits.cardinality());
+            for (int d = hits.nextSetBit(0); d >= 0; d = hits.nextSetBit(d + 1)) items.add(docs[d]);
+            return new Result(items, brandCounts, inStockCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // base &= dokumen dengan min <= harga <= max; rentang lebar memakai komplemen (lebih sedikit bit)
+    private void applyHarga(BitSet base, double min, double max) {
+        int lo = lowerBound(min);
+        int hi = upperBound(max);
+        if (hi <= lo) {
+            base.clear();
+            return;
+        }
+        if (hi - lo <= sortedSize / 2) {
+            BitSet range = new BitSet(docCount);
+            for (int i = lo; i < hi; i++) range.set(sortedDoc[i]);
+            base.and(range);
+        } else {
+            for (int i = 0; i < lo; i++) base.clear(sortedDoc[i]);
+            for (int i = hi; i < sortedSize; i++) base.clear(sortedDoc[i]);
+        }
+    }
+
+    // Posisi pertama dengan harga >= h
+    private int lowerBound(double h) {
+        int lo = 0, hi = sortedSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedHarga[mid] < h) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Posisi pertama dengan harga > h
+    private int upperBound(double h) {
+        int lo = 0, hi = sortedSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedHarga[mid] <= h) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Jumlah barang yang terindeks
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================================
+    //      PERUBAHAN KATALOG
+    // ================================
+
+    @Override
+    public void barangAdded(Barang b) {
+        lock.writeLock().lock();
+        try {
+            if (docOf.containsKey(b)) return;
+            int doc = newDoc(b);
+            setBits(doc, b);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void barangRemoved(Barang b) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docOf.remove(b);
+            if (doc == null) return;
+            markMoved(doc);
+            alive.clear(doc);
+            inStock.clear(doc);
+            byBrand[brandOf[doc]].clear(doc);
+            docs[doc] = null;
+            removed++;
+            // Terlalu banyak tombstone -> bangun ulang dari dokumen yang masih hidup
+            if (removed > 1024 && removed > docCount / 2) {
+                List<Barang> live = new ArrayList<>(docCount - removed);
+                for (int d = alive.nextSetBit(0); d >= 0; d = alive.nextSetBit(d + 1)) live.add(docs[d]);
+                rebuild(live);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Barang pengganti mengambil alih nomor dokumen lama: hanya bit/posisi yang berubah dipindah
+    @Override
+    public void barangReplaced(Barang old, Barang baru) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docOf.remove(old);
+            if (doc == null) {
+                if (!docOf.containsKey(baru)) {
+                    int d = newDoc(baru);
+                    setBits(d, baru);
+                }
+                return;
+            }
+            docs[doc] = baru;
+            docOf.put(baru, doc);
+            int code = baru.getBrandCode();
+            if (code != brandOf[doc]) {
+                byBrand[brandOf[doc]].clear(doc);
+                brand(code).set(doc);
+                brandOf[doc] = code;
+            }
+            if (baru.getHarga() != hargaOf[doc]) {
+                hargaOf[doc] = baru.getHarga();
+                markMoved(doc);
+            }
+            inStock.set(doc, baru.getStok() > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Stok berubah di tempat: tandai dokumennya saja, bit "tersedia" diperbarui saat query berikutnya.
+    // Tanpa lock indeks: ListBarang memanggil stockChanged sambil memegang read lock katalog, sedangkan
+    // docOf dan array dokumen hanya berubah saat katalog dikunci tulis, jadi keduanya tidak bersamaan.
+    @Override
+    public void stockChanged(Barang b) {
+        Integer doc = docOf.get(b);
+        if (doc == null) return;
+        AtomicLongArray marks = stokBerubah;
+        int w = doc >>> 6;
+        long bit = 1L << doc;
+        long v;
+        do {
+            v = marks.get(w);
+            if ((v & bit) != 0) break; // sudah ditandai
+        } while (!marks.compareAndSet(w, v, v | bit));
+        stokDirty = true; // setelah bit diset (lihat flushStok)
+    }
+
+    @Override
+    public void catalogReloaded(CatalogSnapshot snapshot) {
+        rebuild(snapshot.getItems());
+    }
+
+    // ================================
+    //      STRUKTUR INTERNAL
+    // ================================
+
+    private int newDoc(Barang b) {
+        if (docCount == docs.length) {
+            int cap = docCount * 2;
+            docs = Arrays.copyOf(docs, cap);
+            brandOf = Arrays.copyOf(brandOf, cap);
+            hargaOf = Arrays.copyOf(hargaOf, cap);
+        }
+        int doc = docCount++;
+        if (words(doc + 1) > stokBerubah.length()) {
+            AtomicLongArray old = stokBerubah, grown = new AtomicLongArray(words(docs.length));
+            for (int i = 0; i < old.length(); i++) grown.set(i, old.get(i));
+            stokBerubah = grown;
+        }
+        docs[doc] = b;
+        docOf.put(b, doc);
+        return doc;
+    }
+
+    private void setBits(int doc, Barang b) {
+        brandOf[doc] = b.getBrandCode();
+        hargaOf[doc] = b.getHarga();
+        alive.set(doc);
+        if (b.getStok() > 0) inStock.set(doc);
+        brand(brandOf[doc]).set(doc);
+        markMoved(doc);
+    }
+
+    private void markMoved(int doc) {
+        moved.set(doc);
+        hargaDirty = true;
+    }
+
+    private static int words(int docs) {
+        return Math.max(1, (docs + 63) >>> 6);
+    }
+
+    // Hitung ulang bit "tersedia" untuk dokumen yang ditandai stockChanged, dari stok saat ini.
+    // stokDirty dimatikan sebelum bit diambil: tanda yang masuk selama proses ini menyalakannya lagi,
+    // jadi tidak ada perubahan yang terlewat sampai query berikutnya.
+    private void flushStok() {
+        stokDirty = false;
+        AtomicLongArray marks = stokBerubah;
+        for (int w = 0; w < marks.length(); w++) {
+            if (marks.get(w) == 0) continue;
+            long bits = marks.getAndSet(w, 0);
+            while (bits != 0) {
+                int d = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (d < docCount && alive.get(d)) inStock.set(d, docs[d].getStok() > 0);
+            }
+        }
+    }
+
+    private BitSet brand(int code) {
+        if (code >= byBrand.length) byBrand = Arrays.copyOf(byBrand, Math.max(code + 1, byBrand.length * 2));
+        if (byBrand[code] == null) byBrand[code] = new BitSet();
+        return byBrand[code];
+    }
+
+    // Perbarui indeks harga: buang entri dokumen yang berubah dalam satu lintasan, urutkan entri
+    // barunya saja, lalu gabungkan -> O(n + p log p) untuk p perubahan
+    private void flushHarga() {
+        int p = 0;
+        Integer[] fresh = new Integer[moved.cardinality()];
+        for (int d = moved.nextSetBit(0); d >= 0; d = moved.nextSetBit(d + 1))
+            if (alive.get(d)) fresh[p++] = d;
+        Arrays.sort(fresh, 0, p, (x, y) -> hargaOf[x] != hargaOf[y]
+                ? Double.compare(hargaOf[x], hargaOf[y]) : Integer.compare(x, y));
+
+        int cap = Math.max(16, sortedSize + p);
+        double[] nh = new double[cap];
+        int[] nd = new int[cap];
+        int n = 0, k = 0;
+        for (int i = 0; i < sortedSize; i++) {
+            int d = sortedDoc[i];
+            if (moved.get(d)) continue;
+            double h = sortedHarga[i];
+            while (k < p && (hargaOf[fresh[k]] < h || (hargaOf[fresh[k]] == h && fresh[k] < d))) {
+                nh[n] = hargaOf[fresh[k]];
+                nd[n++] = fresh[k++];
+            }
+            nh[n] = h;
+            nd[n++] = d;
+        }
+        while (k < p) {
+            nh[n] = hargaOf[fresh[k]];
+            nd[n++] = fresh[k++];
+        }
+        sortedHarga = nh;
+        sortedDoc = nd;
+        sortedSize = n;
+        moved.clear();
+        hargaDirty = false;
+    }
+}
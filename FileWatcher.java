@@ -0,0 +1,72 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+// Memantau folder data lewat WatchService dan menandai "dirty" setiap kali file dengan awalan
+// nama tertentu berubah (barang.txt, barang.txt.journal, ...). Selama tidak dirty, pemanggil
+// tidak perlu memeriksa file di disk sama sekali.
+public class FileWatcher {
+    private final String prefix;
+    private volatile boolean dirty = true; // awalnya dianggap berubah agar dicek sekali
+    private volatile WatchService service;
+
+    public FileWatcher(File target) {
+        this.prefix = target.getName();
+        Path dir = target.getAbsoluteFile().getParentFile().toPath();
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            Thread t = new Thread(this::run, "watch-" + prefix);
+            t.setDaemon(true);
+            t.start();
+        } catch (IOException | UnsupportedOperationException e) {
+            // Tanpa WatchService: selalu dianggap dirty (kembali ke pengecekan cap file)
+            System.err.println("WatchService tidak tersedia untuk " + dir + ": " + e.getMessage());
+            service = null;
+        }
+    }
+
+    // true jika ada perubahan sejak panggilan sebelumnya (flag langsung direset)
+    public boolean consumeDirty() {
+        if (service == null) return true;
+        if (!dirty) return false;
+        dirty = false;
+        return true;
+    }
+
+    public void close() {
+        if (service == null) return;
+        try {
+            service.close();
+        } catch (IOException ignored) {}
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> ev : key.pollEvents()) {
+                    Object ctx = ev.context();
+                    if (ev.kind() == StandardWatchEventKinds.OVERFLOW
+                            || (ctx instanceof Path && ctx.toString().startsWith(prefix))) {
+                        dirty = true;
+                    }
+                }
+                if (!key.reset()) {
+                    dirty = true; // folder tidak bisa dipantau lagi
+                    service = null;
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // berhenti
+        }
+    }
+}
@@ -0,0 +1,205 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Indeks trigram untuk pencarian yang tahan salah ketik ("sunscren" -> "sunscreen").
+// Yang diindeks adalah kosakata (kata unik dari nama & brand), bukan barang: tiap kata dipecah
+// menjadi trigram "$kata$" dan tiap (trigram, panjang kata) menunjuk ke kata-kata yang memilikinya,
+// sehingga lookup hanya membuka daftar kata yang panjangnya masih dalam batas edit.
+// Kandidat untuk kata query hanya kata yang berbagi cukup banyak trigram (satu edit merusak paling
+// banyak 3 trigram), lalu diverifikasi dengan edit distance yang dibatasi; katalog tidak pernah dipindai.
+// Semua method synchronized: dipanggil dari thread penulis (event) dan thread pencarian.
+public class FuzzyIndex {
+    private static final int MIN_LENGTH = 4; // kata lebih pendek tidak dikoreksi (terlalu banyak kemiripan)
+
+    // Daftar id kata untuk satu trigram
+    private static final class Ids {
+        int[] ids = new int[4];
+        int size = 0;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+    }
+
+    private final Map<String, Integer> idOf = new HashMap<>();
+    private final List<String> words = new ArrayList<>();
+    private int[] df = new int[16];               // jumlah barang yang memakai kata ini (0 = tidak aktif)
+    private final Map<Long, Ids> grams = new HashMap<>(); // (trigram, panjang kata) -> id kata
+
+    private int[] shared = new int[16];           // dipakai ulang per lookup: jumlah trigram yang sama
+    private int[] touched = new int[16];          // id kata yang count-nya perlu direset
+
+    public synchronized void rebuild(List<Barang> items) {
+        idOf.clear();
+        words.clear();
+        grams.clear();
+        df = new int[16];
+        for (Barang b : items) add(b);
+    }
+
+    public synchronized void add(Barang b) {
+        for (String w : wordsOf(b)) {
+            int id = idOf.computeIfAbsent(w, this::newWord);
+            df[id]++;
+        }
+    }
+
+    public synchronized void remove(Barang b) {
+        for (String w : wordsOf(b)) {
+            Integer id = idOf.get(w);
+            if (id != null && df[id] > 0) df[id]--; // kata tanpa barang tetap di indeks, dilewati saat lookup
+        }
+    }
+
+    public synchronized void replace(Barang old, Barang baru) {
+        remove(old);
+        add(baru);
+    }
+
+    // Kata di kosakata yang paling dekat dengan word (jarak edit terkecil, lalu paling banyak dipakai),
+    // atau null jika tidak ada dalam batas. Batas: 1 edit untuk kata 4-7 huruf, 2 untuk 8 huruf ke atas.
+    public synchronized String closest(String word) {
+        if (word == null || word.length() < MIN_LENGTH) return null;
+        Integer exact = idOf.get(word);
+        if (exact != null && df[exact] > 0) return word;
+        int maxEdits = word.length() >= 8 ? 2 : 1;
+        long[] qg = gramsOf(word);
+        if (shared.length < words.size()) {
+            shared = new int[words.size()];
+            touched = new int[words.size()];
+        }
+
+        int nTouched = 0;
+        int minLen = Math.max(1, word.length() - maxEdits), maxLen = word.length() + maxEdits;
+        for (long g : qg) {
+            for (int len = minLen; len <= maxLen; len++) {
+                Ids list = grams.get(g | (long) len << 48);
+                if (list == null) continue;
+                for (int i = 0; i < list.size; i++) {
+                    int id = list.ids[i];
+                    if (shared[id]++ == 0) touched[nTouched++] = id;
+                }
+            }
+        }
+
+        // Verifikasi bertahap: kata berjarak <= e pasti berbagi >= |trigram query| - 3e trigram, jadi
+        // putaran e = 1 hanya memeriksa kandidat yang sangat mirip; putaran berikutnya hanya jika kosong
+        String best = null;
+        int bestDist = maxEdits + 1, bestDf = 0;
+        for (int e = 1; e <= maxEdits && best == null; e++) {
+            int need = qg.length - 3 * e; // selalu >= 1 untuk batas di atas
+            for (int t = 0; t < nTouched; t++) {
+                int id = touched[t];
+                if (shared[id] < need || df[id] == 0) continue;
+                String cand = words.get(id);
+                int d = distance(word, cand, e);
+                if (d < bestDist || (d == bestDist && df[id] > bestDf)) {
+                    best = cand;
+                    bestDist = d;
+                    bestDf = df[id];
+                }
+            }
+        }
+        for (int t = 0; t < nTouched; t++) shared[touched[t]] = 0;
+        return best;
+    }
+
+    // Query dengan setiap kata yang tidak dikenal diganti kata terdekat; null jika tidak ada yang berubah.
+    // known: kata yang sudah ada di indeks pencarian (mis. kata deskripsi) tidak perlu dikoreksi.
+    public String correct(String query, Predicate<String> known) {
+        List<String> tokens = SearchIndex.tokenize(query);
+        boolean changed = false;
+        StringBuilder sb = new StringBuilder();
+        for (String t : tokens) {
+            String c = t;
+            if (!known.test(t)) {
+                String fix = closest(t);
+                if (fix != null) {
+                    c = fix;
+                    changed = true;
+                }
+            }
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(c);
+        }
+        return changed ? sb.toString() : null;
+    }
+
+    // Jumlah kata aktif di kosakata
+    public synchronized int size() {
+        int n = 0;
+        for (int i = 0; i < words.size(); i++) if (df[i] > 0) n++;
+        return n;
+    }
+
+    // ================================
+    //      INTERNAL
+    // ================================
+
+    // Kata dari nama & brand yang layak dikoreksi (huruf, minimal MIN_LENGTH; angka dilewati)
+    private static List<String> wordsOf(Barang b) {
+        List<String> out = SearchIndex.tokenize(b.getNama());
+        out.addAll(SearchIndex.tokenize(b.getBrand()));
+        out.removeIf(w -> w.length() < MIN_LENGTH || !Character.isLetter(w.charAt(0)));
+        return out;
+    }
+
+    private int newWord(String w) {
+        int id = words.size();
+        words.add(w);
+        if (id == df.length) df = Arrays.copyOf(df, id * 2);
+        for (long g : gramsOf(w)) grams.computeIfAbsent(g | (long) w.length() << 48, k -> new Ids()).add(id);
+        return id;
+    }
+
+    // Trigram unik dari "$" + w + "$", masing-masing dikemas dalam satu long (3 x 16 bit)
+    private static long[] gramsOf(String w) {
+        int n = w.length();
+        long[] out = new long[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            char a = i == 0 ? '$' : w.charAt(i - 1);
+            char b = w.charAt(i);
+            char c = i == n - 1 ? '$' : w.charAt(i + 1);
+            long g = ((long) a << 32) | ((long) b << 16) | c;
+            boolean dup = false;
+            for (int k = 0; k < size && !dup; k++) dup = out[k] == g;
+            if (!dup) out[size++] = g;
+        }
+        return size == n ? out : Arrays.copyOf(out, size);
+    }
+
+    // Jarak Levenshtein a-b, atau max + 1 jika melebihi max (hanya pita |i - j| <= max yang dihitung)
+    static int distance(String a, String b, int max) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int big = max + 1;
+        int[] prev = new int[m + 1], cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j <= max ? j : big;
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max), to = Math.min(m, i + max);
+            cur[0] = i <= max ? i : big;
+            if (from > 1) cur[from - 1] = big;
+            int rowMin = cur[0];
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int v = prev[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                v = Math.min(v, prev[j] + 1);
+                v = Math.min(v, cur[j - 1] + 1);
+                cur[j] = Math.min(v, big);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (to < m) cur[to + 1] = big;
+            if (rowMin > max) return big; // seluruh pita sudah melewati batas
+            int[] tmp = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return Math.min(prev[m], big);
+    }
+}
@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Penulis "group commit" untuk file append-only (dipakai jurnal stok).
+// Semua baris yang masuk dalam jendela waktu singkat digabung menjadi satu kali tulis + fsync,
+// dan setiap pemanggil baru dianggap selesai setelah batch miliknya benar-benar tersimpan.
+public class GroupCommitWriter {
+    private static final int MAX_BATCH = 4096; // batas baris per batch agar latensi tetap kecil
+    private static final long PERIODIC_NANOS = TimeUnit.SECONDS.toNanos(1); // jarak fsync mode PERIODIC
+
+    private final Path path;
+    private final long windowNanos;
+    private final FlushListener onFlushed; // dipanggil setelah setiap batch ditulis (boleh null)
+
+    private List<String> pending = new ArrayList<>();
+    private List<CompletableFuture<Void>> waiters = new ArrayList<>();
+    private boolean flushing = false;
+    private Thread flusher;
+
+    private volatile Durability durability = Durability.FSYNC;
+    private boolean unsynced = false; // ada data yang sudah ditulis tapi belum di-fsync (PERIODIC)
+    private long lastForce = System.nanoTime();
+    private long written; // ukuran batch terakhir (hanya dipakai thread flusher)
+
+    // Posisi byte batch yang baru ditulis: [start, end). Proses lain bisa menambah baris ke file
+    // yang sama sebelum/sesudahnya, jadi end belum tentu sama dengan ukuran file saat callback.
+    public interface FlushListener {
+        void flushed(long start, long end);
+    }
+
+    public GroupCommitWriter(Path path, long windowMicros, FlushListener onFlushed) {
+        this.path = path;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, windowMicros));
+        this.onFlushed = onFlushed;
+    }
+
+    // FSYNC: future selesai setelah fsync. NONE/PERIODIC: future selesai setelah data ditulis
+    // ke file (page cache); PERIODIC menyusulkan fsync paling lambat satu periode kemudian.
+    public void setDurability(Durability durability) {
+        if (durability != null) this.durability = durability;
+    }
+
+    // Memasukkan satu baris ke antrean; future selesai setelah baris tersebut tersimpan di disk
+    public CompletableFuture<Void> submit(String line) {
+        return submitAll(Collections.singletonList(line));
+    }
+
+    // Memasukkan beberapa baris yang pasti berada dalam batch yang sama
+    public synchronized CompletableFuture<Void> submitAll(List<String> lines) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        pending.addAll(lines);
+        waiters.add(done);
+        if (flusher == null) {
+            flusher = new Thread(this::run, "group-commit-" + path.getFileName());
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+        notifyAll();
+        return done;
+    }
+
+    // true jika masih ada baris yang belum selesai ditulis
+    public synchronized boolean hasPending() {
+        return flushing || !pending.isEmpty();
+    }
+
+    private void run() {
+        while (true) {
+            List<String> lines = null;
+            List<CompletableFuture<Void>> batch = null;
+            synchronized (this) {
+                try {
+                    if (!awaitBatch()) {
+                        // Mode PERIODIC dan jatah fsync sudah tiba, tanpa baris baru
+                        unsynced = false;
+                        lastForce = System.nanoTime();
+                    } else {
+                        lines = pending;
+                        batch = waiters;
+                        pending = new ArrayList<>();
+                        waiters = new ArrayList<>();
+                        flushing = true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            // Isi file tidak berubah, jadi tidak perlu menandai flushing
+            if (lines == null) {
+                try {
+                    sync();
+                } catch (IOException e) {
+                    System.err.println("Gagal fsync " + path + ": " + e.getMessage());
+                }
+                continue;
+            }
+
+            long end = -1;
+            try {
+                end = write(lines);
+                for (CompletableFuture<Void> w : batch) w.complete(null);
+            } catch (IOException e) {
+                for (CompletableFuture<Void> w : batch) w.completeExceptionally(e);
+            } finally {
+                // flushing baru dilepas setelah callback, agar pembaca tidak melihat jurnal "baru"
+                // yang sebenarnya berisi entri milik proses ini sendiri
+                if (onFlushed != null && end >= 0) onFlushed.flushed(end - written, end);
+                synchronized (this) { flushing = false; }
+            }
+        }
+    }
+
+    // Menunggu batch berikutnya; false jika yang tiba justru jatah fsync mode PERIODIC
+    private boolean awaitBatch() throws InterruptedException {
+        while (pending.isEmpty()) {
+            if (!unsynced) { wait(); continue; }
+            long left = lastForce + PERIODIC_NANOS - System.nanoTime();
+            if (left <= 0) return false;
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        // Tunggu sebentar agar checkout lain yang bersamaan ikut batch yang sama
+        long deadline = System.nanoTime() + windowNanos;
+        long left;
+        while ((left = deadline - System.nanoTime()) > 0 && pending.size() < MAX_BATCH)
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        return true;
+    }
+
+    // Satu kali tulis berurutan untuk seluruh batch, fsync sesuai mode durability.
+    // Mengembalikan posisi byte tepat setelah batch ini (ukurannya disimpan di written).
+    private long write(List<String> lines) throws IOException {
+        StringBuilder sb = new StringBuilder(lines.size() * 24);
+        for (String l : lines) sb.append(l).append('\n');
+        ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            long end = ch.position(); // mode APPEND: posisi = akhir tulisan ini
+            written = buf.limit();
+            Durability d = durability;
+            boolean due;
+            synchronized (this) {
+                due = d == Durability.FSYNC
+                        || (d == Durability.PERIODIC && System.nanoTime() - lastForce >= PERIODIC_NANOS);
+                if (due) lastForce = System.nanoTime();
+                unsynced = !due && d == Durability.PERIODIC;
+            }
+            if (due) ch.force(false);
+            return end;
+        }
+    }
+
+    private void sync() throws IOException {
+        if (!path.toFile().exists()) return; // jurnal sudah dipadatkan & dihapus
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ch.force(false);
+        }
+    }
+}
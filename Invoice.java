@@ -8,6 +8,12 @@ public class Invoice {
     private Transaksi transaksi;
     private Pembayaran pembayaran;
 
+    // Isi transaksi tidak berubah, jadi teks invoice cukup dibuat sekali;
+    // hanya dibuat ulang jika status pesanan berubah (satu-satunya bagian yang bisa berubah)
+    private String rendered;
+    private String renderedStatus;
+    private boolean saved; // Invoice.txt hanya ditulis sekali per invoice
+
     // Lebar kolom
     private static final int W_ID = 8;
     private static final int W_NAME = 25; 
@@ -27,14 +33,31 @@ public class Invoice {
     }
 
     @Override
-    public String toString() {
+    public synchronized String toString() {
+        String status = transaksi.getStatus();
+        if (rendered != null && Objects.equals(status, renderedStatus)) return rendered;
+        rendered = render(status);
+        renderedStatus = status;
+
+        if (!saved) {
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter("Invoice.txt", true))) {
+                bw.write(rendered);
+                bw.newLine();
+                saved = true;
+            } catch (IOException ex) {}
+        }
+        return rendered;
+    }
+
+    // Menyusun teks invoice hanya dari data transaksi (tidak membaca katalog)
+    private String render(String status) {
         StringBuilder sb = new StringBuilder();
         SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
         // Header invoice
         sb.append("========== INVOICE ==========\n");
         sb.append("Trans ID     : ").append(transaksi.getId()).append('\n');
-        sb.append("Status       : ").append(transaksi.getStatus()).append('\n'); // Tampilkan Status
+        sb.append("Status       : ").append(status).append('\n'); // Tampilkan Status
         sb.append("Customer     : ").append(transaksi.getCustomer() != null ? transaksi.getCustomer().getUsername() : "unknown").append('\n');
         sb.append("Waktu        : ").append(df.format(new Date(transaksi.getTimestamp()))).append("\n\n");
 
@@ -47,49 +70,26 @@ public class Invoice {
         sb.append(String.format(headerFmt, "ID", "Nama Barang", "Harga", "Qty", "Subtotal", "Brand"));
         sb.append(String.join("", Collections.nCopies(lineLen/1, "-"))).append("\n");
 
-        // Hitung qty per barang
-        List<Barang> items = transaksi.getBarangList();
-        Map<String, Integer> qtyMap = new LinkedHashMap<>();
-        Map<String, Barang> rep = new HashMap<>();
-        for (Barang b : items) {
-            if (b == null) continue;
-            qtyMap.put(b.getId(), qtyMap.getOrDefault(b.getId(), 0) + 1);
-            rep.putIfAbsent(b.getId(), b);
-        }
-
-        // Hitung total
-        double total = 0.0;
-        for (Map.Entry<String,Integer> e : qtyMap.entrySet()) {
-            String id = e.getKey();
-            int qty = e.getValue();
-            Barang b = rep.get(id);
-            double price = b != null ? b.getHarga() : 0.0;
-            double sub = price * qty;
-            total += sub;
+        // Satu baris per barang; qty, harga & total sudah tersimpan di transaksi
+        for (LineItem li : transaksi.getItems()) {
             sb.append(String.format(rowFmt,
-                    id,
-                    truncate(b != null ? b.getNama() : "", W_NAME),
-                    price,
-                    qty,
-                    sub,
-                    truncate(b != null ? b.getBrand() : "", W_BRAND)
+                    li.getId(),
+                    truncate(li.getNama(), W_NAME),
+                    li.getHarga(),
+                    li.getQty(),
+                    li.getSubtotal(),
+                    truncate(li.getBrand(), W_BRAND)
             ));
         }
 
         sb.append(String.join("", Collections.nCopies(lineLen/1, "-"))).append("\n");
 
         // Total pembayaran
-        sb.append(String.format("%-" + (W_ID+W_NAME+2) + "s  %" + (W_PRICE+W_QTY+W_SUB) + ".2f%n", "TOTAL:", total));
+        sb.append(String.format("%-" + (W_ID+W_NAME+2) + "s  %" + (W_PRICE+W_QTY+W_SUB) + ".2f%n", "TOTAL:", transaksi.getTotal()));
 
          // Metode pembayaran
         sb.append("\nMetode Bayar : ").append(pembayaran != null ? pembayaran.toString() : "null").append("\n");
         sb.append("=============================\n");
-
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter("Invoice.txt", true))) {
-            bw.write(sb.toString());
-            bw.newLine();
-        } catch (IOException ex) {}
-
         return sb.toString();
     }
 
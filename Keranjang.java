@@ -1,7 +1,12 @@
 import java.util.*;
 
 public class Keranjang {
-    private final List<CartItem> items = new ArrayList<>();
+    // item disimpan per ID barang (urutan masuk tetap terjaga) agar pencarian O(1)
+    private final Map<String, CartItem> items = new LinkedHashMap<>();
+    // daftar item untuk getItems(): dibuat sekali, dibuang saat item masuk/keluar keranjang
+    // (perubahan qty tidak mengubah daftar). Daftar lama tidak diubah, jadi aman diiterasi
+    // sambil keranjang diubah.
+    private List<CartItem> view;
 
     // tambah barang dengan qty (jika sudah ada, tambah qty)
     public void addBarang(Barang b, int qty) {
@@ -10,34 +15,38 @@ public class Keranjang {
         if (found != null) {
             found.addQty(qty);
         } else {
-            items.add(new CartItem(b, qty));
+            items.put(b.getId(), new CartItem(b, qty));
+            view = null;
         }
     }
 
     // kompatibilitas: tambah 1 unit
     public void addBarang(Barang b) { addBarang(b, 1); }
 
-    public List<CartItem> getItems() { return Collections.unmodifiableList(items); }
+    public List<CartItem> getItems() {
+        if (view == null) view = Collections.unmodifiableList(new ArrayList<>(items.values()));
+        return view;
+    }
 
     // kembalikan daftar Barang (flatten) - kompatibilitas lama
     public List<Barang> getBarang() {
         List<Barang> flat = new ArrayList<>();
-        for (CartItem it : items) {
+        for (CartItem it : items.values()) {
             for (int i = 0; i < it.getQty(); i++) flat.add(it.getBarang());
         }
         return flat;
     }
 
     // Hapus semua isi keranjang
-    public void clear() { items.clear(); }
+    public void clear() {
+        items.clear();
+        view = null;
+    }
 
     public boolean removeById(String id) {
-        CartItem f = findById(id);
-        if (f != null) {
-            items.remove(f);
-            return true;
-        }
-        return false;
+        if (id == null || items.remove(id) == null) return false;
+        view = null;
+        return true;
     }
 
     // hapus sejumlah qty; jika qty >= item.qty maka hapus item
@@ -46,7 +55,8 @@ public class Keranjang {
         CartItem f = findById(id);
         if (f == null) return false;
         if (qty >= f.getQty()) {
-            items.remove(f);
+            items.remove(id);
+            view = null;
         } else {
             f.setQty(f.getQty() - qty);
         }
@@ -56,7 +66,6 @@ public class Keranjang {
     // Mencari item di keranjang berdasarkan ID barang
     private CartItem findById(String id) {
         if (id == null) return null;
-        for (CartItem it : items) if (id.equals(it.getBarang().getId())) return it;
-        return null;
+        return items.get(id);
     }
 }
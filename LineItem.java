@@ -0,0 +1,30 @@
+// Satu baris transaksi: salinan data barang saat checkout (id, nama, brand, harga) dan jumlahnya.
+// Pembelian N unit disimpan sebagai satu baris (bukan N referensi Barang). Baris tidak menyimpan
+// referensi ke Barang, jadi edit/hapus di katalog tidak pernah mengubah transaksi atau invoice lama.
+public class LineItem {
+    private final String id;
+    private final String nama;
+    private final String brand;
+    private final double harga; // harga satuan saat checkout
+    private final int qty;
+
+    public LineItem(Barang barang, int qty) {
+        this.id = barang.getId();
+        this.nama = barang.getNama();
+        this.brand = barang.getBrand();
+        this.harga = barang.getHarga();
+        this.qty = Math.max(0, qty);
+    }
+
+    public String getId() { return id; }
+    public String getNama() { return nama; }
+    public String getBrand() { return brand; }
+    public double getHarga() { return harga; }
+    public int getQty() { return qty; }
+    public double getSubtotal() { return harga * qty; }
+
+    @Override
+    public String toString() {
+        return id + " x" + qty + " @ " + harga + " (" + nama + ")";
+    }
+}
@@ -1,50 +1,417 @@
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-// Menyimpan dan memproses data Barang + integrasi file
+// Menyimpan dan memproses data Barang + integrasi file.
+// Penguncian: perubahan struktur (load/save/tambah/hapus/edit) memegang monitor objek ini
+// ditambah write lock katalog. Perubahan stok hanya memegang read lock (boleh berjalan bersamaan)
+// dan mengurangi stok lewat CAS di StokCounter; keranjang berisi beberapa barang juga mengunci
+// stripe milik ID yang terlibat, diambil berurutan agar tidak terjadi deadlock.
+// Antar-proses: semua penulisan (jurnal & snapshot) memegang CatalogFileLock dan menyamakan isi
+// memori dengan disk lebih dulu, sehingga seq jurnal tetap naik walau ditulis beberapa proses.
+// Pembacaan hanya memeriksa disk jika FileWatcher melihat ada file yang berubah.
+// Pembaca memakai CatalogSnapshot yang diterbitkan ulang setelah setiap perubahan struktur
+// (tanpa lock); barangList & index di bawah ini hanya milik penulis.
 public class ListBarang implements DataStorage {
 
     private List<Barang> barangList = new ArrayList<>();
+    private Map<String, Barang> index = new HashMap<>(); // indeks ID -> Barang (selalu sinkron dengan barangList)
     private String filePath = "barang.txt"; // lokasi penyimpanan data barang
 
-    public ListBarang() {}
+    // Jumlah entri jurnal sebelum dipadatkan kembali ke barang.txt
+    private static final int COMPACT_EVERY = 500;
+
+    // Lock per kelompok ID barang untuk keranjang multi-barang
+    private static final int STRIPES = 32;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    // Read: operasi stok; write: perubahan struktur / snapshot (stok & seq konsisten saat disimpan)
+    private final ReentrantReadWriteLock catalogLock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> hotShards = new HashMap<>(); // barang panas -> jumlah shard stok
+    private boolean binary = false;        // snapshot berformat BinarySnapshot, bukan teks
+    private boolean lazyDeskripsi = false; // deskripsi disimpan terpadatkan, dibuka saat getDeskripsi()
+    private Durability durability = Durability.FSYNC; // fsync snapshot & jurnal
+
+    // Pembagi ID otomatis: angka tertinggi yang pernah dipakai (tidak pernah turun selama file sama),
+    // dipulihkan saat load dari header "id=" dan ID yang ada, lalu disimpan lagi di header snapshot
+    private final AtomicInteger idHighWater = new AtomicInteger();
+    private volatile int idWidth = 2; // lebar ID angka berawalan nol, mis. "01"
+    private final Object journalLock = new Object(); // menjaga urutan seq == urutan tulis jurnal
+
+    // Cap file terakhir yang sudah dimuat/ditulis (mtime, ukuran, inode).
+    // Selama cap ini sama dengan file di disk, isi memori dianggap paling benar.
+    private volatile boolean loaded = false;
+    private FileStamp dataStamp;
+    private FileStamp journalStamp;
+
+    private CatalogFileLock fileLock;  // kunci antar-proses untuk penulisan
+    private long checkedGeneration = -1; // generasi kunci saat disk terakhir dicek
+    private volatile FileWatcher watcher; // penanda perubahan file dari WatchService
+
+    // Potret katalog untuk pembaca, dan versi global yang naik pada setiap perubahan (termasuk stok)
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+    private boolean unpublished = false; // ada perubahan struktur yang potretnya belum diterbitkan
+    private final AtomicLong version = new AtomicLong();
+    private volatile CatalogColumns columns; // tampilan kolom, dibuat ulang jika versi berubah
+
+    // Pendengar perubahan katalog (mis. indeks pencarian), dipanggil saat lock penulis dipegang
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
+    private CatalogSearch search;
+    private AutocompleteIndex autocomplete;
+    private FacetIndex facets;
+
+    // Cache hasil cari/filter (bobot = jumlah barang di hasil); berlaku selama versi katalog sama
+    private static final int QUERY_CACHE_WEIGHT = 200_000;
+    private final QueryCache<FacetIndex.Result> queryCache =
+            new QueryCache<>(QUERY_CACHE_WEIGHT, r -> r.items.size() + 1);
+
+    // Jurnal stok: perubahan stok ditambahkan di sini, bukan menulis ulang barang.txt
+    private StockJournal journal;
+    private long seq = 0;            // nomor urut entri jurnal terakhir yang diketahui
+    private long snapshotSeq = 0;    // nomor urut yang sudah termasuk dalam barang.txt
+    private long journalOffset = 0;  // posisi byte jurnal yang sudah diputar ulang
+    private int journalEntries = 0;  // jumlah entri jurnal sejak pemadatan terakhir
+
+    public ListBarang() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
 
     // Mengubah lokasi file jika diperlukan (validasi sederhana)
-    public void setFilePath(String path) {
-        if (path != null && !path.trim().isEmpty()) filePath = path;
+    public synchronized void setFilePath(String path) {
+        if (path != null && !path.trim().isEmpty()) {
+            lockCatalog();
+            try {
+                filePath = path;
+                journal = null;
+                fileLock = null;
+                checkedGeneration = -1;
+                idHighWater.set(0);
+                idWidth = 2;
+                if (watcher != null) watcher.close();
+                watcher = null;
+                loaded = false; // paksa muat ulang dari file baru
+            } finally {
+                unlockCatalog();
+            }
+        }
     }
 
-    // Mengambil list barang terbaru dari file (read-only)
+    // Mengambil list barang (read-only, tidak berubah walau katalog diubah sesudahnya),
+    // file hanya dibaca ulang jika berubah
     public List<Barang> getBarangList() {
-        loadData(); 
-        return Collections.unmodifiableList(barangList);
+        return getSnapshot().getItems();
     }
 
     // Mencari satu barang berdasarkan ID
     public Barang getBarang(String id) {
-        loadData();
-        if (id == null) return null;
-        for (Barang b : barangList) 
-            if (id.equals(b.getId())) return b;
-        return null;
+        return getSnapshot().get(id);
     }
 
-    // Generate ID otomatis berdasarkan angka terbesar di file
-    public String generateId() {
-        loadData();
-        int max = 0;
-        for (Barang b : barangList) {
+    // Potret katalog terbaru (list + indeks + versi yang saling konsisten)
+    public CatalogSnapshot getSnapshot() {
+        reloadIfChanged();
+        return snapshot;
+    }
+
+    // Versi katalog saat ini; naik setiap ada perubahan barang maupun stok
+    public long getVersion() {
+        return version.get();
+    }
+
+    // Tampilan kolom (array primitif) untuk agregat & pengurutan; dipakai ulang selama versi sama
+    public CatalogColumns getColumns() {
+        reloadIfChanged();
+        long v = version.get(); // dibaca sebelum potret: potret minimal sebaru versi ini
+        CatalogColumns c = columns;
+        if (c == null || c.getVersion() != v) {
+            c = new CatalogColumns(snapshot, v);
+            columns = c;
+        }
+        return c;
+    }
+
+    public void addListener(CatalogListener l) {
+        if (l != null) listeners.add(l);
+    }
+
+    public void removeListener(CatalogListener l) {
+        listeners.remove(l);
+    }
+
+    // Fitur pencarian katalog; indeks dibangun sekali lalu diperbarui lewat CatalogListener
+    public synchronized CatalogSearch getSearch() {
+        reloadIfChanged();
+        if (search == null) {
+            lockCatalog(); // tidak ada perubahan yang terlewat antara membangun indeks dan mendaftar
+            try {
+                search = new CatalogSearch(snapshot);
+                addListener(search);
+            } finally {
+                unlockCatalog();
+            }
+        }
+        return search;
+    }
+
+    // Saran ketik (prefix nama/brand); trie dibangun sekali lalu diperbarui lewat CatalogListener
+    public synchronized AutocompleteIndex getAutocomplete() {
+        reloadIfChanged();
+        if (autocomplete == null) {
+            lockCatalog();
             try {
-                String digits = b.getId().replaceAll("\\D+", "");
-                if (!digits.isEmpty()) {
-                    int v = Integer.parseInt(digits);
-                    if (v > max) max = v;
+                autocomplete = new AutocompleteIndex(snapshot, this::getVersion);
+                addListener(autocomplete);
+            } finally {
+                unlockCatalog();
+            }
+        }
+        return autocomplete;
+    }
+
+    // Filter brand / harga / stok dengan jumlah per facet; diperbarui lewat CatalogListener
+    public synchronized FacetIndex getFacets() {
+        reloadIfChanged();
+        if (facets == null) {
+            lockCatalog();
+            try {
+                facets = new FacetIndex(snapshot);
+                addListener(facets);
+            } finally {
+                unlockCatalog();
+            }
+        }
+        return facets;
+    }
+
+    // Cari + filter katalog (query kosong = semua barang). Hasil yang sama untuk query ternormalisasi
+    // (kata unik, urut) + filter yang sama diambil dari cache selama katalog belum berubah.
+    // Filter & jumlah facet dihitung atas semua barang yang cocok; batas CatalogSearch.DEFAULT_LIMIT
+    // (urut relevansi) baru diterapkan pada barang yang lolos filter. Result.total berisi jumlah
+    // seluruhnya, Result.koreksi query hasil koreksi ejaan jika query asli tidak menemukan apa pun.
+    public FacetIndex.Result cari(String query, FacetIndex.Filter filter) {
+        reloadIfChanged();
+        long v = version.get(); // dibaca sebelum menghitung (lihat QueryCache.get)
+        List<String> words = new ArrayList<>(new TreeSet<>(SearchIndex.tokenize(query)));
+        String key = String.join(" ", words) + "|" + filter.key();
+        return queryCache.get(key, v, () -> {
+            if (words.isEmpty()) return getFacets().query(filter);
+            CatalogSearch search = getSearch();
+            String q = query;
+            String koreksi = null;
+            List<Barang> matched = search.getIndex().matchAll(q);
+            if (matched.isEmpty()) { // sama seperti CatalogSearch.search: coba kata yang dikoreksi
+                String fix = search.didYouMean(q);
+                if (fix != null) {
+                    q = fix;
+                    koreksi = fix;
+                    matched = search.getIndex().matchAll(q);
                 }
-            } catch (Exception ignored) {}
+            }
+            FacetIndex.Result res = getFacets().query(filter, matched);
+            Set<Barang> pass = Collections.newSetFromMap(new IdentityHashMap<>());
+            pass.addAll(res.items);
+            List<Barang> ranked = search.getIndex().search(q, CatalogSearch.DEFAULT_LIMIT, pass::contains);
+            return new FacetIndex.Result(ranked, res.brandCounts, res.inStockCount, res.items.size(), koreksi);
+        });
+    }
+
+    public QueryCache<FacetIndex.Result> getQueryCache() {
+        return queryCache;
+    }
+
+    // Menerbitkan potret baru dari list & indeks penulis (dipanggil setelah perubahan struktur).
+    // Selalu SETELAH listener diberi tahu: begitu versi baru terlihat, indeks pencarian/facet juga
+    // sudah baru, sehingga QueryCache tidak pernah menyimpan hasil indeks lama di bawah versi baru.
+    // Dipanggil di bawah write lock katalog, jadi tidak ada reserve yang ikut menaikkan versi.
+    private void publish() {
+        publish(nextSnapshot());
+    }
+
+    private void publish(CatalogSnapshot next) {
+        snapshot = next;
+        unpublished = false;
+        version.set(next.getVersion());
+    }
+
+    // Menerbitkan perubahan yang ditunda applyBatch(batch, false)
+    private synchronized void publishPending() {
+        if (!unpublished) return;
+        lockCatalog();
+        try {
+            publish();
+        } finally {
+            unlockCatalog();
+        }
+    }
+
+    // Potret untuk versi berikutnya, belum diterbitkan (mis. untuk listener catalogReloaded)
+    private CatalogSnapshot nextSnapshot() {
+        return new CatalogSnapshot(new ArrayList<>(barangList), new HashMap<>(index), version.get() + 1);
+    }
+
+    // Barang pengganti untuk edit: objek lama tidak diubah, sehingga pembaca potret lama
+    // tetap melihat barang yang utuh (stok dibawa ke penghitung baru)
+    private Barang replacement(Barang old, String nama, double harga, int stok, String deskripsi, String brand) {
+        Barang nb = new Barang(old.getId(), nama, harga, stok, deskripsi, brand);
+        if (lazyDeskripsi) nb.packDeskripsi();
+        Integer shards = hotShards.get(old.getId());
+        if (shards != null) nb.setStokShards(shards);
+        return nb;
+    }
+
+    // Generate ID otomatis: O(1), tidak pernah membagikan angka yang sama dua kali
+    // (juga antar-thread), dengan format berawalan nol seperti ID yang sudah ada ("01", "21").
+    // Batas ID dibaca ulang dari header snapshot di bawah kunci file jika proses lain sudah menulis;
+    // ID yang dibuat lalu dipakai terpisah masih bisa bentrok antar-proses (addBarang menolaknya),
+    // jadi untuk barang baru pakai addBarangBaru yang membuat dan menyimpan ID dalam satu kunci.
+    public String generateId() {
+        CatalogFileLock lease = beginWrite();
+        try {
+            return formatId(idHighWater.incrementAndGet());
+        } finally {
+            lease.release();
+        }
+    }
+
+    private String formatId(int id) {
+        String n = Integer.toString(id);
+        int width = idWidth;
+        if (n.length() >= width) return n;
+        StringBuilder sb = new StringBuilder(width);
+        for (int i = n.length(); i < width; i++) sb.append('0');
+        return sb.append(n).toString();
+    }
+
+    // Memperbarui batas ID dari satu ID barang (gabungan digit, sama seperti ID lama dibaca)
+    private void noteId(String id) {
+        int v = 0, digits = 0;
+        boolean numeric = !id.isEmpty();
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (v > (Integer.MAX_VALUE - 9) / 10) return; // bukan ID urut, abaikan
+                v = v * 10 + (c - '0');
+                digits++;
+            } else {
+                numeric = false;
+            }
+        }
+        if (digits == 0) return;
+        idHighWater.accumulateAndGet(v, Math::max);
+        if (numeric && id.charAt(0) == '0' && id.length() > idWidth) idWidth = id.length();
+    }
+
+    // Muat ulang hanya jika barang.txt atau jurnalnya diubah pihak lain sejak terakhir dibaca/ditulis.
+    // Tanpa notifikasi dari FileWatcher, cap file tidak perlu dicek sama sekali.
+    public void reloadIfChanged() {
+        FileWatcher w = watcher;
+        if (loaded && w != null && !w.consumeDirty()) return; // jalur cepat tanpa lock
+        syncWithDisk();
+    }
+
+    // Mulai penulisan: ambil kunci antar-proses, lalu pastikan memori memuat tulisan proses lain.
+    // Selesai dengan release() pada kunci yang dikembalikan.
+    private CatalogFileLock beginWrite() {
+        CatalogFileLock lock;
+        synchronized (this) {
+            if (fileLock == null) fileLock = CatalogFileLock.forFile(new File(filePath));
+            lock = fileLock;
+        }
+        lock.acquire(this);
+        synchronized (this) {
+            // Selama kunci dipegang terus oleh proses ini, proses lain tidak mungkin menulis
+            if (lock.getGeneration() != checkedGeneration) {
+                syncWithDisk();
+                checkedGeneration = lock.getGeneration();
+            }
         }
-        return String.valueOf(max + 1);
+        return lock;
+    }
+
+    // Pekerjaan yang dijalankan sambil memegang kunci file (lihat withFileLock)
+    public interface LockedWork<T> {
+        T run() throws IOException;
+    }
+
+    // Menjalankan pekerjaan panjang yang mengubah katalog bertahap tanpa langsung menyimpan (mis. import
+    // CSV): kunci antar-proses dipegang sampai selesai, sehingga tidak ada proses lain yang menulis file
+    // dan memicu reload yang membuang perubahan yang belum disimpan. Kunci bisa diambil ulang di dalamnya.
+    // Perubahan applyBatch(batch, false) yang belum diterbitkan diterbitkan di akhir.
+    public <T> T withFileLock(LockedWork<T> work) throws IOException {
+        CatalogFileLock lease = beginWrite();
+        try {
+            return work.run();
+        } finally {
+            publishPending();
+            lease.release();
+        }
+    }
+
+    // Membandingkan cap file di disk dengan yang terakhir dimuat/ditulis
+    private synchronized void syncWithDisk() {
+        if (watcher == null) watcher = new FileWatcher(new File(filePath));
+        if (!loaded || !Objects.equals(FileStamp.of(new File(filePath)), dataStamp)) {
+            loadData();
+            return;
+        }
+        // Entri jurnal milik proses ini masih ditulis -> isi memori sudah paling baru
+        if (journal().hasPending()) return;
+        // Snapshot sama, cukup putar ulang entri jurnal yang baru ditambahkan
+        FileStamp j = FileStamp.of(journal().getFile());
+        if (Objects.equals(j, journalStamp)) return;
+        if (j == null || j.size < journalOffset) {
+            loadData(); // jurnal dipadatkan pihak lain
+            return;
+        }
+        lockCatalog();
+        try {
+            replayJournal();
+        } finally {
+            unlockCatalog();
+        }
+    }
+
+    private StockJournal journal() {
+        if (journal == null) {
+            journal = new StockJournal(new File(filePath + ".journal"), this::journalFlushed);
+            journal.setDurability(durability);
+        }
+        return journal;
+    }
+
+    // Dipanggil writer jurnal setelah batch [start, end) milik proses ini tersimpan.
+    // Posisi baca hanya maju ke akhir batch kita, bukan ke ukuran file: setelah batch ditulis, kunci
+    // file sudah bisa dilepas dan proses lain bisa menambah entri yang belum kita terapkan.
+    // Jika posisi baca belum sampai start (mis. jurnal baru saja dipadatkan), biarkan replay yang
+    // membaca ulang; entri kita sendiri dilewati karena seq-nya sudah diterapkan.
+    private synchronized void journalFlushed(long start, long end) {
+        if (journal == null) return;
+        if (journalOffset == start) journalOffset = end;
+        FileStamp j = FileStamp.of(journal.getFile());
+        // Cap file dianggap sudah dibaca hanya jika file berakhir tepat di batch kita
+        journalStamp = j != null && j.size == journalOffset ? j : null;
     }
 
     // ================================
@@ -52,108 +419,560 @@ public class ListBarang implements DataStorage {
     // ================================
 
     @Override
-    public void loadData() {
+    public synchronized void loadData() {
+        lockCatalog();
+        try {
+            readFiles();
+        } finally {
+            unlockCatalog();
+        }
+    }
+
+    private void readFiles() {
         barangList.clear();
+        index.clear();
+        seq = 0;
+        snapshotSeq = 0;
+        journalOffset = 0;
+        journalEntries = 0;
+        loaded = true;
         File f = new File(filePath);
-        if (!f.exists()) return; // jika file belum ada, list tetap kosong
+        dataStamp = FileStamp.of(f);
+
+        // Format snapshot mengikuti isi file (file baru: dari akhiran ".bin")
+        binary = f.exists() ? BinarySnapshot.isBinary(f) : filePath.endsWith(".bin");
 
-        // Membaca file dengan aman (try-with-resources)
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                // Parsing fleksibel mendukung CSV lama & format baru
-                Barang b = Barang.fromFileString(line);
-                if (b != null) barangList.add(b);
+        // Jika file belum ada, list tetap kosong (jurnal tetap diperiksa)
+        if (f.exists()) {
+            try {
+                CatalogLoader.Result r = binary ? BinarySnapshot.read(f) : CatalogLoader.read(f);
+                for (Barang b : r.items) put(b);
+                snapshotSeq = r.headerSeq;
+                idHighWater.accumulateAndGet(r.headerId, Math::max);
+                if (r.bad > 0) System.err.println(r.bad + " baris tidak valid di " + filePath + " dilewati.");
+            } catch (IOException e) {
+                // Penting untuk debugging jika file rusak atau tidak terbaca
+                System.err.println("Error saat membaca data barang: " + e.getMessage());
+                e.printStackTrace();
             }
+        }
+        seq = snapshotSeq;
+        replayJournal();
+        CatalogSnapshot next = nextSnapshot();
+        for (CatalogListener l : listeners) l.catalogReloaded(next);
+        publish(next);
+    }
+
+    // Menerapkan entri jurnal yang belum diterapkan ke stok di memori
+    private void replayJournal() {
+        StockJournal j = journal();
+        journalStamp = FileStamp.of(j.getFile());
+        try {
+            long before = seq;
+            journalOffset = j.replay(journalOffset, (s, id, delta) -> {
+                if (s <= seq) return; // sudah termasuk dalam snapshot / sudah diterapkan
+                Barang b = index.get(id);
+                if (b != null) {
+                    b.addStok(delta);
+                    for (CatalogListener l : listeners) l.stockChanged(b);
+                }
+                if (s > seq) seq = s;
+                journalEntries++;
+            });
+            if (seq != before) version.incrementAndGet(); // stok berubah oleh proses lain
         } catch (IOException e) {
-            // Penting untuk debugging jika file rusak atau tidak terbaca
-            System.err.println("Error saat membaca data barang: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("Error saat membaca jurnal stok: " + e.getMessage());
         }
     }
 
     @Override
-    public void saveData() {
+    public synchronized void saveData() {
+        CatalogFileLock lease = beginWrite();
+        lockCatalog();
+        try {
+            if (unpublished) publish();
+            writeSnapshot();
+        } finally {
+            unlockCatalog();
+            lease.release();
+        }
+    }
+
+    private void writeSnapshot() {
         File f = new File(filePath);
+        File tmp = new File(filePath + ".tmp");
 
-        // Menulis ulang isi file setiap kali save (overwrite)
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(f, false))) {
-            for (Barang b : barangList) {
-                // Format penyimpanan: CSV
-                String line = b.getId() + "," + escape(b.getNama()) + "," + b.getHarga()
-                        + "," + b.getStok() + "," + escape(b.getDeskripsi()) + "," + escape(b.getBrand());
-                bw.write(line);
-                bw.newLine();
+        // Snapshot ditulis ke file sementara lalu diganti sekaligus (rename atomik), sehingga
+        // barang.txt selalu berisi versi lama atau versi baru yang utuh, tidak pernah setengah jadi
+        try {
+            try (FileOutputStream out = new FileOutputStream(tmp, false)) {
+                if (binary) {
+                    BinarySnapshot.write(barangList, seq, idHighWater.get(), out);
+                } else {
+                    BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out));
+                    bw.write("# seq=" + seq + " id=" + idHighWater.get());
+                    bw.newLine();
+                    for (Barang b : barangList) {
+                        // Format penyimpanan: CSV
+                        bw.write(b.toFileString());
+                        bw.newLine();
+                    }
+                    bw.flush();
+                }
+                // Snapshot wajib tersimpan di disk sebelum jurnal dihapus (kecuali mode NONE)
+                if (durability != Durability.NONE) out.getFD().sync();
             }
+            replace(tmp, f);
         } catch (IOException e) {
             System.err.println("Error saat menyimpan data barang: " + e.getMessage());
             e.printStackTrace();
+            tmp.delete();
+            dataStamp = FileStamp.of(f);
+            return; // jurnal jangan dihapus jika snapshot gagal ditulis
         }
+        dataStamp = FileStamp.of(f);
+        snapshotSeq = seq;
+        journal().clear();
+        journalStamp = null;
+        journalOffset = 0;
+        journalEntries = 0;
     }
 
     // ================================
     //      OPERASI CRUD BARANG
     // ================================
 
-    public void addBarang(Barang b) {
-        if (b == null) return;
-        loadData();      
-        barangList.add(b);
-        saveData();      // langsung simpan ke file
+    // Menambah barang; false jika ID sudah dipakai (termasuk oleh proses lain yang sudah menyimpan)
+    public synchronized boolean addBarang(Barang b) {
+        if (b == null) return false;
+        CatalogFileLock lease = beginWrite(); // memuat tulisan proses lain sebelum cek ID
+        lockCatalog();
+        try {
+            if (index.containsKey(b.getId())) return false;
+            put(b);
+            for (CatalogListener l : listeners) l.barangAdded(b);
+            publish();
+            saveData();      // langsung simpan ke file
+            return true;
+        } finally {
+            unlockCatalog();
+            lease.release();
+        }
     }
 
-    public boolean removeBarang(String id) {
-        loadData();
-        Barang target = getBarang(id);
-        if (target != null) {
-            barangList.remove(target);
-            saveData();
-            return true;
+    // Menambah barang dengan ID otomatis; ID dibuat dan disimpan dalam satu kunci file, sehingga
+    // dua proses tidak pernah membagikan ID yang sama. Mengembalikan ID barang baru.
+    public synchronized String addBarangBaru(String nama, double harga, int stok, String deskripsi, String brand) {
+        CatalogFileLock lease = beginWrite();
+        try {
+            String id = generateId();
+            while (index.containsKey(id)) id = generateId(); // ID manual yang kebetulan sama
+            addBarang(new Barang(id, nama, harga, stok, deskripsi, brand));
+            return id;
+        } finally {
+            lease.release();
+        }
+    }
+
+    public synchronized boolean removeBarang(String id) {
+        CatalogFileLock lease = beginWrite();
+        lockCatalog();
+        try {
+            Barang target = id == null ? null : index.get(id);
+            if (target != null) {
+                barangList.remove(target);
+                index.remove(id);
+                // Jika file berisi ID ganda, barang berikutnya dengan ID sama ikut terindeks
+                for (Barang b : barangList)
+                    if (id.equals(b.getId())) { index.put(id, b); break; }
+                for (CatalogListener l : listeners) l.barangRemoved(target);
+                publish();
+                saveData();
+                return true;
+            }
+            return false;
+        } finally {
+            unlockCatalog();
+            lease.release();
         }
-        return false;
     }
 
     // Edit lengkap semua atribut barang
-    public boolean editBarangFull(String id, String nama, double harga, int stok,
+    public synchronized boolean editBarangFull(String id, String nama, double harga, int stok,
                                   String deskripsi, String brand) {
-        loadData();
-        Barang target = getBarang(id);
-        if (target != null) {
-            target.setNama(nama);
-            target.setHarga(harga);
-            target.setStok(stok);
-            target.setDeskripsi(deskripsi);
-            target.setBrand(brand);
-            saveData();
-            return true;
+        CatalogFileLock lease = beginWrite();
+        lockCatalog();
+        try {
+            Barang target = id == null ? null : index.get(id);
+            if (target != null) {
+                Barang nb = replacement(target, nama, harga, stok, deskripsi, brand);
+                index.put(id, nb);
+                barangList.replaceAll(b -> b == target ? nb : b);
+                for (CatalogListener l : listeners) l.barangReplaced(target, nb);
+                publish();
+                saveData();
+                return true;
+            }
+            return false;
+        } finally {
+            unlockCatalog();
+            lease.release();
         }
-        return false;
+    }
+
+    // Menerapkan banyak perubahan sekaligus: divalidasi bersama, diterapkan di memori, lalu
+    // disimpan satu kali. Mengembalikan daftar kesalahan; jika tidak kosong, tidak ada yang diubah.
+    public List<String> applyBatch(BarangBatch batch) {
+        return applyBatch(batch, true);
+    }
+
+    // save = false: hanya diterapkan di memori (mis. import bertahap yang diakhiri satu saveData()).
+    // Potret baru juga ditunda: menyalin list & map per batch membuat import n baris O(n^2 / batch).
+    // Listener (indeks) sudah diperbarui, tetapi getBarangList()/getBarang() dan versi katalog baru
+    // berubah saat saveData(), akhir withFileLock, atau perubahan struktur berikutnya.
+    public synchronized List<String> applyBatch(BarangBatch batch, boolean save) {
+        List<String> errors = new ArrayList<>();
+        if (batch == null || batch.isEmpty()) return errors;
+        CatalogFileLock lease = beginWrite();
+        lockCatalog();
+        try {
+            validateBatch(batch.getOps(), errors);
+            if (!errors.isEmpty()) return errors;
+
+            Set<Barang> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<String> removedIds = new HashSet<>();
+            // Edit/ubah harga mengganti objek: objek di list -> pengganti terbaru, dan sebaliknya
+            Map<Barang, Barang> replaced = new IdentityHashMap<>();
+            Map<Barang, Barang> origin = new IdentityHashMap<>();
+            for (BarangBatch.Op op : batch.getOps()) {
+                BarangBatch.Kind kind = op.kind;
+                if (kind == BarangBatch.Kind.UPSERT)
+                    kind = index.containsKey(op.id) ? BarangBatch.Kind.EDIT : BarangBatch.Kind.ADD;
+                switch (kind) {
+                    case ADD:
+                        Barang b = op.barang;
+                        if (b.getId().isEmpty())
+                            b = new Barang(generateId(), b.getNama(), b.getHarga(), b.getStok(), b.getDeskripsi(), b.getBrand());
+                        put(b);
+                        for (CatalogListener l : listeners) l.barangAdded(b);
+                        break;
+                    case REMOVE:
+                        Barang r = index.remove(op.id);
+                        Barang inList = origin.getOrDefault(r, r);
+                        replaced.remove(inList);
+                        gone.add(inList);
+                        removedIds.add(op.id);
+                        for (CatalogListener l : listeners) l.barangRemoved(r);
+                        break;
+                    case EDIT:
+                        Barang t = index.get(op.id);
+                        Barang src = op.barang; // UPSERT membawa nilai baru dalam objek Barang
+                        swap(t, src != null
+                                ? replacement(t, src.getNama(), src.getHarga(), src.getStok(), src.getDeskripsi(), src.getBrand())
+                                : replacement(t, op.nama, op.harga, op.stok, op.deskripsi, op.brand), replaced, origin);
+                        break;
+                    case EDIT_INFO:
+                        Barang info = index.get(op.id);
+                        swap(info, replacement(info, op.nama, op.harga, info.getStok(), op.deskripsi, op.brand),
+                                replaced, origin);
+                        break;
+                    case RESTOCK:
+                        Barang s = index.get(op.id);
+                        s.addStok(op.delta); // stok berbasis CAS, aman diubah di tempat
+                        for (CatalogListener l : listeners) l.stockChanged(s);
+                        break;
+                    case REPRICE:
+                        Barang p = index.get(op.id);
+                        swap(p, replacement(p, p.getNama(), op.harga, p.getStok(), p.getDeskripsi(), p.getBrand()),
+                                replaced, origin);
+                        break;
+                }
+            }
+            // Ganti & hapus di list sekali jalan (bukan O(n) per barang)
+            if (!replaced.isEmpty()) barangList.replaceAll(b -> replaced.getOrDefault(b, b));
+            if (!gone.isEmpty()) {
+                barangList.removeIf(gone::contains);
+                // Jika file berisi ID ganda, barang berikutnya dengan ID sama ikut terindeks
+                for (Barang b : barangList)
+                    if (removedIds.contains(b.getId())) index.putIfAbsent(b.getId(), b);
+            }
+            if (save) {
+                publish();
+                saveData();
+            } else {
+                unpublished = true;
+            }
+            return errors;
+        } finally {
+            unlockCatalog();
+            lease.release();
+        }
+    }
+
+    // Mencatat pengganti sebuah barang dalam batch (bisa diganti berkali-kali)
+    private void swap(Barang cur, Barang nb, Map<Barang, Barang> replaced, Map<Barang, Barang> origin) {
+        Barang inList = origin.getOrDefault(cur, cur);
+        replaced.put(inList, nb);
+        origin.put(nb, inList);
+        index.put(nb.getId(), nb);
+        for (CatalogListener l : listeners) l.barangReplaced(cur, nb);
+    }
+
+    // Memeriksa seluruh operasi terhadap keadaan katalog setelah operasi sebelumnya
+    // (tanpa mengubah apa pun): ID ada/tidak ada, harga & stok tidak negatif
+    private void validateBatch(List<BarangBatch.Op> ops, List<String> errors) {
+        Map<String, Integer> stok = new HashMap<>();    // stok hasil operasi sebelumnya
+        Map<String, Boolean> exists = new HashMap<>();  // keberadaan ID setelah operasi sebelumnya
+        for (int i = 0; i < ops.size(); i++) {
+            BarangBatch.Op op = ops.get(i);
+            String where = "Operasi " + (i + 1) + " (" + op.kind + " " + (op.id == null ? "-" : op.id) + "): ";
+            if (op.kind == BarangBatch.Kind.ADD || op.kind == BarangBatch.Kind.UPSERT) {
+                if (op.barang == null) { errors.add(where + "barang kosong"); continue; }
+                if (op.barang.getHarga() < 0 || op.barang.getStok() < 0) { errors.add(where + "harga/stok negatif"); continue; }
+                if (op.id.isEmpty()) continue;
+                if (op.kind == BarangBatch.Kind.ADD && existsAfter(op.id, exists)) { errors.add(where + "ID sudah ada"); continue; }
+                exists.put(op.id, true);
+                stok.put(op.id, op.barang.getStok());
+                continue;
+            }
+            if (op.id == null || !existsAfter(op.id, exists)) { errors.add(where + "barang tidak ditemukan"); continue; }
+            switch (op.kind) {
+                case REMOVE:
+                    exists.put(op.id, false);
+                    stok.remove(op.id);
+                    break;
+                case EDIT:
+                    if (op.harga < 0 || op.stok < 0) errors.add(where + "harga/stok negatif");
+                    else stok.put(op.id, op.stok);
+                    break;
+                case RESTOCK:
+                    int cur = stok.containsKey(op.id) ? stok.get(op.id) : index.get(op.id).getStok();
+                    long next = (long) cur + op.delta;
+                    if (next < 0) errors.add(where + "stok menjadi negatif (" + next + ")");
+                    else if (next > Integer.MAX_VALUE) errors.add(where + "stok terlalu besar");
+                    else stok.put(op.id, (int) next);
+                    break;
+                case EDIT_INFO:
+                case REPRICE:
+                    if (op.harga < 0) errors.add(where + "harga negatif");
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private boolean existsAfter(String id, Map<String, Boolean> exists) {
+        Boolean e = exists.get(id);
+        return e != null ? e : index.containsKey(id);
+    }
+
+    // Menelusuri semua barang dari satu potret katalog (mis. export CSV); penulis tidak tertahan
+    public void forEachBarang(Consumer<Barang> action) {
+        for (Barang b : getSnapshot().getItems()) action.accept(b);
     }
 
     // Mengurangi stok (validasi stok cukup)
     public boolean reduceStock(String id, int qty) {
         if (id == null || qty <= 0) return false;
-        loadData();
-        for (Barang b : barangList) {
-            if (id.equals(b.getId())) {
-                if (b.getStok() < qty) return false; // stok tidak cukup
-                b.setStok(b.getStok() - qty);
-                saveData();
-                return true;
+        return reserve(Collections.singletonMap(id, qty));
+    }
+
+    // Mengurangi stok beberapa barang sekaligus secara all-or-nothing (ID -> qty).
+    // Stripe milik keranjang dikunci berurutan, lalu tiap barang diambil lewat CAS; jika satu saja
+    // gagal, yang sudah diambil dikembalikan sehingga tidak ada yang berubah. Semua delta dicatat ke
+    // jurnal dalam satu kali tulis. Menunggu fsync dilakukan setelah lock dilepas agar checkout lain
+    // bisa ikut batch yang sama.
+    public boolean reserve(Map<String, Integer> items) {
+        if (items == null || items.isEmpty()) return false;
+        for (Map.Entry<String, Integer> e : items.entrySet())
+            if (e.getKey() == null || e.getValue() == null || e.getValue() <= 0) return false;
+
+        // Kunci antar-proses dipegang sampai jurnal tertulis, supaya proses lain melihat entri ini
+        // (dan seq-nya) sebelum menambah entri sendiri
+        CatalogFileLock lease = beginWrite();
+        try {
+            return reserveLocked(items);
+        } finally {
+            lease.release();
+        }
+    }
+
+    private boolean reserveLocked(Map<String, Integer> items) {
+        // Satu barang cukup CAS tanpa stripe. Untuk beberapa barang, urutkan stripe (TreeMap)
+        // -> urutan kunci selalu sama di semua thread
+        TreeMap<Integer, ReentrantLock> needed = new TreeMap<>();
+        if (items.size() > 1)
+            for (String id : items.keySet()) needed.put(stripeOf(id), stripes[stripeOf(id)]);
+
+        CompletableFuture<Void> durable;
+        catalogLock.readLock().lock();
+        for (ReentrantLock l : needed.values()) l.lock();
+        try {
+            List<Barang> taken = new ArrayList<>(items.size());
+            List<String> ids = new ArrayList<>(items.size());
+            List<Integer> deltas = new ArrayList<>(items.size());
+            for (Map.Entry<String, Integer> e : items.entrySet()) {
+                Barang b = index.get(e.getKey());
+                if (b == null || !b.tryReduceStok(e.getValue())) {
+                    // stok tidak cukup -> kembalikan semua yang sudah diambil. Pengurangan sementara
+                    // bisa sempat terlihat listener lewat stockChanged milik thread lain (mis. stok
+                    // jadi 0), jadi pengembaliannya juga diberitahukan.
+                    for (int i = 0; i < taken.size(); i++) taken.get(i).addStok(-deltas.get(i));
+                    for (Barang t : taken)
+                        for (CatalogListener l : listeners) l.stockChanged(t);
+                    return false;
+                }
+                taken.add(b);
+                ids.add(e.getKey());
+                deltas.add(-e.getValue());
             }
+            durable = appendJournal(ids, deltas);
+            for (Barang b : taken)
+                for (CatalogListener l : listeners) l.stockChanged(b);
+            version.incrementAndGet(); // setelah listener, sama seperti publish()
+        } finally {
+            for (ReentrantLock l : needed.descendingMap().values()) l.unlock();
+            catalogLock.readLock().unlock();
+        }
+
+        awaitDurable(durable);
+        if (journalEntries >= COMPACT_EVERY) saveData(); // padatkan di luar stripe lock
+        return true;
+    }
+
+    // Mencatat perubahan stok ke jurnal (append kecil) sebagai satu batch.
+    // Dipanggil sambil memegang read lock katalog; seq dialokasikan dan diantrekan atomik
+    // sehingga urutan seq di file selalu naik.
+    private CompletableFuture<Void> appendJournal(List<String> ids, List<Integer> deltas) {
+        synchronized (journalLock) {
+            long[] seqs = new long[ids.size()];
+            for (int i = 0; i < seqs.length; i++) seqs[i] = ++seq;
+            journalEntries += seqs.length;
+            return journal().appendAll(seqs, ids, deltas);
+        }
+    }
+
+    // Menunggu batch jurnal tersimpan; jika gagal, simpan seluruh katalog sebagai cadangan
+    private void awaitDurable(CompletableFuture<Void> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            System.err.println("Error saat menulis jurnal stok: " + e.getCause().getMessage());
+            saveData();
+        }
+    }
+
+    private static int stripeOf(String id) {
+        return (id.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    // Write lock katalog: menunggu semua operasi stok yang sedang berjalan selesai
+    private void lockCatalog() {
+        catalogLock.writeLock().lock();
+    }
+
+    private void unlockCatalog() {
+        catalogLock.writeLock().unlock();
+    }
+
+    // Menandai barang "panas" (mis. flash sale): stoknya dipecah ke beberapa shard CAS.
+    // shards <= 1 mengembalikan ke penghitung tunggal. Tetap berlaku setelah katalog dimuat ulang.
+    public synchronized void setHotBarang(String id, int shards) {
+        if (id == null) return;
+        lockCatalog();
+        try {
+            if (shards <= 1) hotShards.remove(id);
+            else hotShards.put(id, shards);
+            Barang b = index.get(id);
+            if (b != null) b.setStokShards(shards);
+        } finally {
+            unlockCatalog();
+        }
+    }
+
+    // Mode deskripsi lazy untuk katalog besar: deskripsi (kolom terbesar di barang.txt) disimpan
+    // terpadatkan dan baru dibuka ketika dibutuhkan, mis. popup detail barang.
+    // Default mati: memadatkan setiap deskripsi menambah kerja CPU di jalur load, jadi hanya
+    // sepadan jika memori lebih terbatas daripada waktu start (aktifkan -Dkatalog.lazyDeskripsi=true).
+    public synchronized void setLazyDeskripsi(boolean lazy) {
+        lockCatalog();
+        try {
+            lazyDeskripsi = lazy;
+            if (lazy) for (Barang b : barangList) b.packDeskripsi();
+        } finally {
+            unlockCatalog();
+        }
+    }
+
+    // Mengganti file tujuan dengan file sementara; rename folder ikut di-fsync agar tahan crash
+    private void replace(File tmp, File target) throws IOException {
+        try {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (durability == Durability.NONE) return;
+        File dir = target.getAbsoluteFile().getParentFile();
+        try (FileChannel ch = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException e) {
+            // Beberapa OS (mis. Windows) tidak mendukung fsync folder; rename tetap atomik
+        }
+    }
+
+    // Mode ketahanan tulis untuk snapshot dan jurnal stok
+    public synchronized void setDurability(Durability durability) {
+        if (durability == null) return;
+        this.durability = durability;
+        if (journal != null) journal.setDurability(durability);
+    }
+
+    // Menambah barang ke list sekaligus indeks (ID pertama yang muncul yang dipakai)
+    private void put(Barang b) {
+        if (lazyDeskripsi) b.packDeskripsi();
+        noteId(b.getId());
+        barangList.add(b);
+        if (index.putIfAbsent(b.getId(), b) == null) {
+            Integer shards = hotShards.get(b.getId());
+            if (shards != null) b.setStokShards(shards);
         }
-        return false;
     }
 
     // Kompatibilitas: method lama panggil loadData()
     public void loadFromFile() { loadData(); }
 
-    // Membersihkan karakter yang mengganggu format CSV
-    private String escape(String s) {
-        if (s == null) return "";
-        return s.replace(",", " ")
-                .replace("\r", " ")
-                .replace("\n", " ")
-                .trim();
+    // Cap sebuah file (mtime, ukuran, inode); null jika file tidak ada
+    private static final class FileStamp {
+        final long modified;
+        final long size;
+        final Object key;
+
+        private FileStamp(long modified, long size, Object key) {
+            this.modified = modified;
+            this.size = size;
+            this.key = key;
+        }
+
+        static FileStamp of(File f) {
+            try {
+                BasicFileAttributes a = Files.readAttributes(f.toPath(), BasicFileAttributes.class);
+                return new FileStamp(a.lastModifiedTime().toMillis(), a.size(), a.fileKey());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FileStamp)) return false;
+            FileStamp s = (FileStamp) o;
+            return modified == s.modified && size == s.size && Objects.equals(key, s.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(modified, size, key);
+        }
     }
 }
@@ -25,8 +25,11 @@ public class Main {
 
    public static void main(String[] args) {
       ListBarang listBarang = new ListBarang();
-      String barangFile = "barang.txt";
+      // -Dkatalog.file=barang.bin memakai snapshot biner (lihat BinarySnapshot)
+      String barangFile = System.getProperty("katalog.file", "barang.txt");
       listBarang.setFilePath(barangFile);
+      // -Dkatalog.lazyDeskripsi=true: hemat memori untuk katalog besar, tetapi load jadi lebih lambat
+      listBarang.setLazyDeskripsi(Boolean.getBoolean("katalog.lazyDeskripsi"));
       // perbaikan: loadFromFile tanpa argumen
       listBarang.loadFromFile();
 
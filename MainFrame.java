@@ -5,7 +5,13 @@ import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -82,7 +88,7 @@ public class MainFrame extends JFrame {
     private ListBarang listBarang;         // Penyimpanan produk
     private LoginManager loginManager;     // Penyimpanan akun user
     private final String akunFile = "akun.txt";
-    private final String barangFile = "barang.txt";
+    private final String barangFile = System.getProperty("katalog.file", "barang.txt"); // barang.bin = biner
     private Akun currentUser;
     private List<Transaksi> allTransactions = new ArrayList<>();
 
@@ -94,6 +100,7 @@ public class MainFrame extends JFrame {
         // ListBarang menerapkan interface DataStorage (load & save otomatis)
         listBarang = new ListBarang();
         listBarang.setFilePath(barangFile);
+        listBarang.setLazyDeskripsi(Boolean.getBoolean("katalog.lazyDeskripsi")); // opt-in, lihat Main
         listBarang.loadData();
 
         // Menginisialisasi login manager dan load akun dari file
@@ -287,6 +294,15 @@ class CustomerPanel extends JPanel {
     private ListBarang listBarang;
     private JPanel gridPanel;
     private JLabel lblCartInfo;
+    private JTextField txtSearch; // kata kunci pencarian katalog (kosong = semua barang)
+    private JLabel lblHasil;      // ringkasan hasil: koreksi ejaan & "menampilkan x dari y"
+    private JPopupMenu suggestPopup; // saran ketik di bawah kolom pencarian
+
+    // Filter facet (brand / harga / tersedia) di sisi kiri katalog
+    private final Set<String> selectedBrands = new LinkedHashSet<>();
+    private JPanel brandPanel;
+    private JTextField txtMinHarga, txtMaxHarga;
+    private JCheckBox chkInStock;
 
     public CustomerPanel(MainFrame frame, Customer cust, ListBarang lb) {
         this.mainFrame = frame; 
@@ -316,6 +332,33 @@ class CustomerPanel extends JPanel {
         leftHeader.add(brand);
         leftHeader.add(greeting);
 
+        // ============================
+        // PENCARIAN (indeks kata nama/brand/deskripsi)
+        // ============================
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        searchPanel.setBackground(Color.WHITE);
+        txtSearch = new JTextField(20);
+        txtSearch.addActionListener(e -> refreshCatalog());   // Enter = cari
+        suggestPopup = new JPopupMenu();
+        suggestPopup.setFocusable(false);   // fokus tetap di kolom pencarian saat popup muncul
+        txtSearch.addKeyListener(new java.awt.event.KeyAdapter() {
+            public void keyReleased(java.awt.event.KeyEvent evt) {
+                int code = evt.getKeyCode();
+                if (code == java.awt.event.KeyEvent.VK_ENTER || code == java.awt.event.KeyEvent.VK_ESCAPE) {
+                    suggestPopup.setVisible(false);
+                } else {
+                    showSuggestions();
+                }
+            }
+        });
+        JButton btnSearch = new JButton("Cari");
+        StyleUtils.styleButtonSecondary(btnSearch);
+        btnSearch.addActionListener(e -> refreshCatalog());
+        lblHasil = new JLabel(" ");
+        searchPanel.add(txtSearch);
+        searchPanel.add(btnSearch);
+        searchPanel.add(lblHasil);
+
         // ============================
         // CART + HISTORY + LOGOUT
         // ============================
@@ -346,6 +389,7 @@ class CustomerPanel extends JPanel {
         right.add(btnLogout);
 
         header.add(leftHeader, BorderLayout.WEST);
+        header.add(searchPanel, BorderLayout.CENTER);
         header.add(right, BorderLayout.EAST);
         add(header, BorderLayout.NORTH);
 
@@ -359,17 +403,124 @@ class CustomerPanel extends JPanel {
         JScrollPane scroll = new JScrollPane(gridPanel);
         scroll.getVerticalScrollBar().setUnitIncrement(16);
         add(scroll, BorderLayout.CENTER);
+        add(createFilterPanel(), BorderLayout.WEST);
 
         refreshCatalog();
     }
 
+    // ===========================================
+    // Panel filter: brand (dengan jumlah), rentang harga, hanya yang tersedia
+    // ===========================================
+    private JComponent createFilterPanel() {
+        JPanel side = new JPanel();
+        side.setLayout(new BoxLayout(side, BoxLayout.Y_AXIS));
+        side.setBackground(Color.WHITE);
+        side.setBorder(new EmptyBorder(10,10,10,10));
+
+        JLabel lblBrand = new JLabel("Brand");
+        lblBrand.setFont(StyleUtils.HEADER_FONT);
+        brandPanel = new JPanel();
+        brandPanel.setLayout(new BoxLayout(brandPanel, BoxLayout.Y_AXIS));
+        brandPanel.setBackground(Color.WHITE);
+
+        JLabel lblHarga = new JLabel("Harga");
+        lblHarga.setFont(StyleUtils.HEADER_FONT);
+        txtMinHarga = new JTextField(8);
+        txtMaxHarga = new JTextField(8);
+        JPanel hargaPanel = new JPanel(new GridLayout(2, 2, 5, 5));
+        hargaPanel.setBackground(Color.WHITE);
+        hargaPanel.add(new JLabel("Min:")); hargaPanel.add(txtMinHarga);
+        hargaPanel.add(new JLabel("Max:")); hargaPanel.add(txtMaxHarga);
+        hargaPanel.setMaximumSize(new Dimension(200, 60));
+        txtMinHarga.addActionListener(e -> refreshCatalog());
+        txtMaxHarga.addActionListener(e -> refreshCatalog());
+
+        chkInStock = new JCheckBox("Hanya yang tersedia");
+        chkInStock.setBackground(Color.WHITE);
+        chkInStock.addActionListener(e -> refreshCatalog());
+
+        JButton btnApply = new JButton("Terapkan");
+        StyleUtils.styleButton(btnApply);
+        btnApply.addActionListener(e -> refreshCatalog());
+        JButton btnReset = new JButton("Reset");
+        StyleUtils.styleButtonSecondary(btnReset);
+        btnReset.addActionListener(e -> {
+            selectedBrands.clear();
+            txtMinHarga.setText("");
+            txtMaxHarga.setText("");
+            chkInStock.setSelected(false);
+            refreshCatalog();
+        });
+
+        for (JComponent c : new JComponent[]{lblBrand, brandPanel, lblHarga, hargaPanel, chkInStock, btnApply, btnReset})
+            c.setAlignmentX(Component.LEFT_ALIGNMENT);
+        side.add(lblBrand);
+        side.add(brandPanel);
+        side.add(Box.createVerticalStrut(10));
+        side.add(lblHarga);
+        side.add(hargaPanel);
+        side.add(Box.createVerticalStrut(10));
+        side.add(chkInStock);
+        side.add(Box.createVerticalStrut(10));
+        side.add(btnApply);
+        side.add(Box.createVerticalStrut(5));
+        side.add(btnReset);
+
+        JScrollPane scroll = new JScrollPane(side);
+        scroll.setBorder(null);
+        scroll.getVerticalScrollBar().setUnitIncrement(16);
+        return scroll;
+    }
+
+    // Filter dari isi panel kiri; harga yang kosong / bukan angka diabaikan
+    private FacetIndex.Filter currentFilter() {
+        FacetIndex.Filter filter = new FacetIndex.Filter().inStock(chkInStock.isSelected());
+        for (String br : selectedBrands) filter.brand(br);
+        filter.harga(parseHarga(txtMinHarga.getText(), 0), parseHarga(txtMaxHarga.getText(), Double.POSITIVE_INFINITY));
+        return filter;
+    }
+
+    private static double parseHarga(String s, double def) {
+        try {
+            return s.trim().isEmpty() ? def : Double.parseDouble(s.trim());
+        } catch (NumberFormatException ex) {
+            return def;
+        }
+    }
+
+    // Checkbox brand beserta jumlah barangnya (jumlah mengikuti filter harga & stok)
+    private void updateFacetPanel(FacetIndex.Result res) {
+        brandPanel.removeAll();
+        Map<String, Integer> counts = new TreeMap<>(res.brandCounts);
+        for (String br : selectedBrands) counts.putIfAbsent(br, 0);
+        for (Map.Entry<String, Integer> en : counts.entrySet()) {
+            String br = en.getKey();
+            JCheckBox chk = new JCheckBox((br.isEmpty() ? "(tanpa brand)" : br) + " (" + en.getValue() + ")",
+                    selectedBrands.contains(br));
+            chk.setBackground(Color.WHITE);
+            chk.addActionListener(e -> {
+                if (chk.isSelected()) selectedBrands.add(br);
+                else selectedBrands.remove(br);
+                refreshCatalog();
+            });
+            brandPanel.add(chk);
+        }
+        chkInStock.setText("Hanya yang tersedia (" + res.inStockCount + ")");
+        brandPanel.revalidate();
+        brandPanel.repaint();
+    }
+
     // ===========================================
     // Muat ulang katalog dari file barang.txt
     // ===========================================
     private void refreshCatalog() {
         gridPanel.removeAll();
-        listBarang.loadData();   // refresh data stok nyata
-        for(Barang b : listBarang.getBarangList()) 
+        listBarang.reloadIfChanged();   // refresh data stok nyata (hanya jika file berubah)
+        // Pencarian + filter lewat ListBarang.cari (hasil yang sama diambil dari cache)
+        FacetIndex.Result res = listBarang.cari(txtSearch.getText().trim(), currentFilter());
+        updateFacetPanel(res);
+        updateHasilLabel(res);
+        for(Barang b : res.items) 
             gridPanel.add(createProductCard(b));
 
         updateCartCount();
@@ -377,6 +528,37 @@ class CustomerPanel extends JPanel {
         gridPanel.repaint();
     }
 
+    // Ringkasan hasil di samping kolom cari; hasil pencarian dibatasi CatalogSearch.DEFAULT_LIMIT
+    private void updateHasilLabel(FacetIndex.Result res) {
+        String text = res.isTruncated()
+                ? "Menampilkan " + res.items.size() + " dari " + res.total + " barang"
+                : res.total + " barang";
+        if (res.koreksi != null && !res.items.isEmpty()) text = "Hasil untuk \"" + res.koreksi + "\" - " + text;
+        lblHasil.setText(text);
+    }
+
+    // ===========================================
+    // Saran nama/brand setiap ketikan (trie prefiks, urut stok)
+    // ===========================================
+    private void showSuggestions() {
+        suggestPopup.setVisible(false);
+        suggestPopup.removeAll();
+        String text = txtSearch.getText().trim();
+        if (text.isEmpty()) return;
+        for (String s : listBarang.getAutocomplete().suggest(text, 8)) {
+            JMenuItem item = new JMenuItem(s);
+            item.addActionListener(e -> {
+                txtSearch.setText(s);
+                refreshCatalog();
+            });
+            suggestPopup.add(item);
+        }
+        if (suggestPopup.getComponentCount() > 0) {
+            suggestPopup.show(txtSearch, 0, txtSearch.getHeight());
+            txtSearch.requestFocusInWindow();
+        }
+    }
+
     // ===========================================
     // Card tiap produk (gambar + nama + harga + tombol beli)
     // ===========================================
@@ -548,17 +730,15 @@ class CustomerPanel extends JPanel {
             Pembayaran bayar = (c==0) ? new QRIS() : (c==1) ? new Bank() : new COD();
 
             // Muat ulang stok terbaru sebelum transaksi (mencegah race condition)
-            listBarang.loadData();
+            listBarang.reloadIfChanged();
             Barang realItem = listBarang.getBarang(b.getId());
 
-            // Cek stok terbaru
-            if(realItem != null && realItem.getStok() >= qty) {
+            // Cek & kurangi stok terbaru dalam satu langkah
+            if(realItem != null && listBarang.reduceStock(realItem.getId(), qty)) {
 
-                listBarang.reduceStock(realItem.getId(), qty);
-
-                // Buat list barang sebanyak qty
-                List<Barang> trxItems = new ArrayList<>();
-                for(int i=0; i<qty; i++) trxItems.add(realItem);
+                // Satu baris transaksi untuk seluruh qty
+                List<LineItem> trxItems = new ArrayList<>();
+                trxItems.add(new LineItem(realItem, qty));
 
                 // Simpan transaksi
                 Transaksi trx = new Transaksi(customer, trxItems);
@@ -669,30 +849,31 @@ class CustomerPanel extends JPanel {
             if(c != -1) {
                 Pembayaran bayar = (c==0)?new QRIS():(c==1)?new Bank():new COD();
 
-                listBarang.loadData();   // refresh stok terbaru
+                listBarang.reloadIfChanged();   // refresh stok terbaru
                 
                 boolean ok = true;
-                List<Barang> trxItems = new ArrayList<>();
+                List<LineItem> trxItems = new ArrayList<>();
+                Map<String, Integer> basket = new LinkedHashMap<>();
 
-                // Cek stok untuk tiap item
                 for(CartItem ci : selectedItems) {
                     Barang real = listBarang.getBarang(ci.getBarang().getId());
 
-                    if(real == null || real.getStok() < ci.getQty()) {
+                    if(real == null) {
                         ok = false; 
                     } else {
-                        for(int k=0; k<ci.getQty(); k++) trxItems.add(real);
+                        basket.merge(real.getId(), ci.getQty(), Integer::sum);
+                        trxItems.add(new LineItem(real, ci.getQty()));
                     }
                 }
 
-                if(!ok) {
+                // Cek & kurangi stok seluruh keranjang sekaligus (all-or-nothing)
+                if(!ok || !listBarang.reserve(basket)) {
                     JOptionPane.showMessageDialog(d, "Stok tidak cukup!", "Error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
 
-                // Kurangi stok & hapus dari keranjang
+                // Hapus dari keranjang
                 for(CartItem ci : selectedItems) {
-                    listBarang.reduceStock(ci.getBarang().getId(), ci.getQty());
                     customer.getKeranjang().removeById(ci.getBarang().getId());
                 }
 
@@ -792,22 +973,70 @@ class AdminPanel extends JPanel {
         JPanel panel = new JPanel(new BorderLayout());
 
         String[] cols = {"ID", "Nama", "Harga", "Stok", "Brand", "Desc"};
-        DefaultTableModel model = new DefaultTableModel(cols, 0);
+        // Sel bisa diedit langsung (kecuali ID), lalu disimpan sekaligus lewat "Simpan Tabel"
+        DefaultTableModel model = new DefaultTableModel(cols, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return column != 0;
+            }
+        };
         JTable table = new JTable(model);
 
+        // Baris filter di atas tabel (brand, rentang harga, stok > 0)
+        JComboBox<String> cmbBrand = new JComboBox<>();
+        JTextField txtMin = new JTextField(7);
+        JTextField txtMax = new JTextField(7);
+        JCheckBox chkTersedia = new JCheckBox("Stok > 0");
+        JLabel lblJumlah = new JLabel();
+        final String semua = "Semua brand";
+
+        // Nilai tiap baris saat dimuat ke tabel (ID -> nama, harga, stok, brand, desc), pembanding
+        // "Simpan Tabel": yang disimpan hanya yang diubah admin, bukan selisih dengan stok terkini
+        Map<String, Object[]> loadedRows = new HashMap<>();
+
         // **refresh** → memuat ulang data dari file.txt (menggunakan interface DataStorage)
+        // lalu menampilkan barang yang lolos filter (BitSet di FacetIndex, bukan memindai list)
         Runnable refresh = () -> {
             model.setRowCount(0);
-            listBarang.loadData(); // load ulang file barang.txt
-            for (Barang b : listBarang.getBarangList()) {
-                model.addRow(new Object[]{
+            loadedRows.clear();
+            listBarang.reloadIfChanged(); // load ulang barang.txt hanya jika berubah
+            String brand = (String) cmbBrand.getSelectedItem();
+            FacetIndex.Filter filter = new FacetIndex.Filter().inStock(chkTersedia.isSelected());
+            if (brand != null && !brand.equals(semua)) filter.brand(brand);
+            try {
+                filter.harga(txtMin.getText().trim().isEmpty() ? 0 : Double.parseDouble(txtMin.getText().trim()),
+                        txtMax.getText().trim().isEmpty() ? Double.POSITIVE_INFINITY : Double.parseDouble(txtMax.getText().trim()));
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(panel, "Harga filter harus berupa angka!", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+            FacetIndex.Result res = listBarang.cari("", filter);
+            for (Barang b : res.items) {
+                Object[] row = {
                         b.getId(), b.getNama(), b.getHarga(),
                         b.getStok(), b.getBrand(), b.getDeskripsi()
-                });
+                };
+                model.addRow(row);
+                loadedRows.put(b.getId(), row.clone());
             }
+            // Isi pilihan brand (dengan jumlah) tanpa mengubah pilihan saat ini
+            cmbBrand.removeAllItems();
+            cmbBrand.addItem(semua);
+            for (String br : res.brandCounts.keySet()) cmbBrand.addItem(br);
+            cmbBrand.setSelectedItem(brand != null && res.brandCounts.containsKey(brand) ? brand : semua);
+            lblJumlah.setText(res.items.size() + " barang, " + res.inStockCount + " tersedia");
         };
         refresh.run(); // initial load
 
+        JButton btnFilter = new JButton("Filter");
+        btnFilter.addActionListener(e -> refresh.run());
+        JPanel filterRow = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterRow.add(new JLabel("Brand:")); filterRow.add(cmbBrand);
+        filterRow.add(new JLabel("Harga:")); filterRow.add(txtMin);
+        filterRow.add(new JLabel("-")); filterRow.add(txtMax);
+        filterRow.add(chkTersedia); filterRow.add(btnFilter);
+        filterRow.add(lblJumlah);
+        panel.add(filterRow, BorderLayout.NORTH);
+
         // Input field
         JTextField txtNama = new JTextField();
         JTextField txtHarga = new JTextField();
@@ -845,6 +1074,11 @@ class AdminPanel extends JPanel {
         JButton btnUpd = new JButton("Update");
         JButton btnDel = new JButton("Hapus");
         JButton btnClr = new JButton("Clear");
+        JButton btnSaveTable = new JButton("Simpan Tabel");
+        JButton btnBulk = new JButton("Edit Massal");
+        JButton btnImport = new JButton("Import CSV");
+        JButton btnExport = new JButton("Export CSV");
+        JButton btnStats = new JButton("Statistik");
         JButton btnUpload = new JButton("Upload Foto");
         StyleUtils.styleButtonSecondary(btnUpload);
 
@@ -854,15 +1088,14 @@ class AdminPanel extends JPanel {
         // Validasi numeric + error handling agar program tidak crash
         btnAdd.addActionListener(e -> {
             try {
-                String id = listBarang.generateId(); // ID otomatis increment
-                listBarang.addBarang(new Barang(
-                        id,
+                // ID otomatis dibuat & disimpan sekaligus (aman jika CLI menambah barang bersamaan)
+                listBarang.addBarangBaru(
                         txtNama.getText(),
                         Double.parseDouble(txtHarga.getText()),
                         Integer.parseInt(txtStok.getText()),
                         txtDesc.getText(),
                         txtBrand.getText()
-                ));
+                );
                 refresh.run();
                 JOptionPane.showMessageDialog(panel, "Sukses menambah barang!");
             } catch (NumberFormatException ex) {
@@ -930,6 +1163,172 @@ class AdminPanel extends JPanel {
             }
         });
 
+        // ===========================
+        //   SIMPAN EDIT DI TABEL
+        // ===========================
+        // Baris yang berubah dikumpulkan dalam satu batch -> file hanya ditulis sekali.
+        // Dibandingkan dengan nilai saat tabel dimuat: stok dikirim sebagai selisih (restock), dan
+        // atribut lain lewat editInfo yang tidak menyentuh stok, sehingga checkout customer sejak
+        // tabel dimuat tidak tertimpa stok lama dari tabel.
+        btnSaveTable.addActionListener(e -> {
+            if (table.isEditing()) table.getCellEditor().stopCellEditing();
+            BarangBatch batch = new BarangBatch();
+            try {
+                for (int r = 0; r < model.getRowCount(); r++) {
+                    String id = model.getValueAt(r, 0).toString();
+                    Object[] old = loadedRows.get(id);
+                    if (old == null) continue;
+                    String nama = model.getValueAt(r, 1).toString();
+                    double harga = Double.parseDouble(model.getValueAt(r, 2).toString());
+                    int stok = Integer.parseInt(model.getValueAt(r, 3).toString());
+                    String brand = model.getValueAt(r, 4).toString();
+                    String desc = model.getValueAt(r, 5).toString();
+                    if (!nama.equals(old[1]) || harga != (Double) old[2]
+                            || !brand.equals(old[4]) || !desc.equals(old[5])) {
+                        batch.editInfo(id, nama, harga, desc, brand);
+                    }
+                    int delta = stok - (Integer) old[3];
+                    if (delta != 0) batch.restock(id, delta);
+                }
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(panel, "Harga dan stok harus berupa angka!", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (batch.isEmpty()) {
+                JOptionPane.showMessageDialog(panel, "Tidak ada perubahan.");
+                return;
+            }
+            showBatchResult(panel, batch, listBarang.applyBatch(batch));
+            refresh.run();
+        });
+
+        // ===========================
+        //   EDIT MASSAL BARIS TERPILIH
+        // ===========================
+        btnBulk.addActionListener(e -> {
+            int[] rows = table.getSelectedRows();
+            if (rows.length == 0) {
+                JOptionPane.showMessageDialog(panel, "Pilih satu atau beberapa barang terlebih dahulu!");
+                return;
+            }
+            JTextField txtPersen = new JTextField("0");
+            JTextField txtTambah = new JTextField("0");
+            JPanel p = new JPanel(new GridLayout(2, 2, 5, 5));
+            p.add(new JLabel("Ubah harga (%):")); p.add(txtPersen);
+            p.add(new JLabel("Tambah stok:")); p.add(txtTambah);
+            if (JOptionPane.showConfirmDialog(panel, p, "Edit Massal (" + rows.length + " barang)",
+                    JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) return;
+            BarangBatch batch = new BarangBatch();
+            try {
+                double persen = Double.parseDouble(txtPersen.getText().trim());
+                int tambah = Integer.parseInt(txtTambah.getText().trim());
+                for (int r : rows) {
+                    Barang b = listBarang.getBarang(model.getValueAt(r, 0).toString());
+                    if (b == null) continue;
+                    if (persen != 0) batch.reprice(b.getId(), Math.round(b.getHarga() * (100 + persen) / 100.0));
+                    if (tambah != 0) batch.restock(b.getId(), tambah);
+                }
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(panel, "Input harus berupa angka!", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (batch.isEmpty()) return;
+            showBatchResult(panel, batch, listBarang.applyBatch(batch));
+            refresh.run();
+        });
+
+        // ===========================
+        //   IMPORT / EXPORT CSV
+        // ===========================
+        // Dijalankan di background (SwingWorker) agar UI tidak beku untuk file besar
+        btnImport.addActionListener(e -> {
+            JFileChooser fc = new JFileChooser();
+            fc.setFileFilter(new FileNameExtensionFilter("CSV", "csv", "txt"));
+            if (fc.showOpenDialog(panel) != JFileChooser.APPROVE_OPTION) return;
+            File src = fc.getSelectedFile();
+            File reject = new File(src.getPath() + ".reject");
+            ProgressMonitor pm = new ProgressMonitor(panel, "Import " + src.getName(), "", 0, 100);
+            new SwingWorker<CatalogCsv.Result, String>() {
+                @Override
+                protected CatalogCsv.Result doInBackground() throws Exception {
+                    return CatalogCsv.importCsv(listBarang, src, reject, (done, total, ok, rejected) -> {
+                        setProgress(total == 0 ? 100 : (int) (done * 100 / total));
+                        publish(ok + " diimport, " + rejected + " ditolak");
+                    });
+                }
+
+                @Override
+                protected void process(List<String> notes) {
+                    pm.setNote(notes.get(notes.size() - 1));
+                    pm.setProgress(getProgress());
+                }
+
+                @Override
+                protected void done() {
+                    pm.close();
+                    refresh.run();
+                    try {
+                        CatalogCsv.Result res = get();
+                        if (res.rejected == 0) reject.delete();
+                        JOptionPane.showMessageDialog(panel, "Import selesai: " + res
+                                + (res.rejected > 0 ? "\nBaris yang ditolak: " + reject.getPath() : ""));
+                    } catch (Exception ex) {
+                        JOptionPane.showMessageDialog(panel, "Import gagal: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
+        });
+
+        btnExport.addActionListener(e -> {
+            JFileChooser fc = new JFileChooser();
+            fc.setSelectedFile(new File("katalog.csv"));
+            if (fc.showSaveDialog(panel) != JFileChooser.APPROVE_OPTION) return;
+            File dst = fc.getSelectedFile();
+            new SwingWorker<Integer, Void>() {
+                @Override
+                protected Integer doInBackground() throws Exception {
+                    return CatalogCsv.exportCsv(listBarang, dst, null);
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        JOptionPane.showMessageDialog(panel, get() + " barang diexport ke " + dst.getName());
+                    } catch (Exception ex) {
+                        JOptionPane.showMessageDialog(panel, "Export gagal: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
+        });
+
+        // ===========================
+        //   STATISTIK INVENTORI
+        // ===========================
+        // Dihitung dari tampilan kolom (array primitif), bukan dari baris tabel
+        btnStats.addActionListener(e -> {
+            CatalogColumns kolom = listBarang.getColumns();
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Jumlah barang : %,d%n", kolom.size()));
+            sb.append(String.format("Total stok    : %,d%n", kolom.totalStok()));
+            sb.append(String.format("Nilai inventori: Rp %,.0f%n", kolom.totalNilai()));
+            sb.append("Cache query   : " + listBarang.getQueryCache() + "\n");
+            if (kolom.size() > 0) {
+                sb.append(String.format("Harga p10 / p50 / p90: Rp %,.0f / %,.0f / %,.0f%n",
+                        kolom.persentilHarga(10), kolom.persentilHarga(50), kolom.persentilHarga(90)));
+            }
+            sb.append("\nStok per brand:\n");
+            for (Map.Entry<String, Long> en : kolom.stokPerBrand().entrySet())
+                sb.append(String.format("  %-16s %,d%n", en.getKey(), en.getValue()));
+            sb.append("\nStok paling sedikit:\n");
+            int[] low = kolom.urutStok();
+            for (int i = 0; i < Math.min(5, low.length); i++)
+                sb.append(String.format("  %-6s %-24s %,d%n", kolom.get(low[i]).getId(), kolom.get(low[i]).getNama(), kolom.getStok(low[i])));
+            JTextArea area = new JTextArea(sb.toString());
+            area.setEditable(false);
+            area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+            JOptionPane.showMessageDialog(panel, new JScrollPane(area), "Statistik Inventori", JOptionPane.INFORMATION_MESSAGE);
+        });
+
         // Bersihkan form
         btnClr.addActionListener(e -> {
             lblId.setText("-");
@@ -942,6 +1341,8 @@ class AdminPanel extends JPanel {
 
         form.add(btnUpload);
         btns.add(btnAdd); btns.add(btnUpd); btns.add(btnDel); btns.add(btnClr);
+        btns.add(btnSaveTable); btns.add(btnBulk); btns.add(btnImport); btns.add(btnExport);
+        btns.add(btnStats);
 
         panel.add(new JScrollPane(table), BorderLayout.CENTER);
 
@@ -953,6 +1354,16 @@ class AdminPanel extends JPanel {
         return panel;
     }
 
+    // Pesan hasil batch: sukses, atau daftar kesalahan (tidak ada yang disimpan)
+    private static void showBatchResult(Component parent, BarangBatch batch, List<String> errors) {
+        if (errors.isEmpty()) {
+            JOptionPane.showMessageDialog(parent, batch.size() + " perubahan berhasil disimpan!");
+        } else {
+            JOptionPane.showMessageDialog(parent, "Tidak ada yang disimpan:\n- " + String.join("\n- ", errors),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     // ===========================
     // PANEL KELOLA PESANAN
     // ===========================
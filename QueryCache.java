@@ -0,0 +1,98 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// Cache hasil query katalog (pencarian / filter) berbasis LRU dengan batas bobot.
+// Setiap entri berlaku untuk satu versi katalog: begitu versi ListBarang naik (tambah, edit, hapus,
+// stok berkurang), seluruh entri versi lama dibuang pada akses berikutnya, sehingga hasil basi tidak
+// pernah dikembalikan. Bobot entri ditentukan weigher (mis. jumlah barang di hasil); entri yang paling
+// lama tidak dipakai dikeluarkan sampai total bobot kembali di bawah batas.
+public class QueryCache<V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final int weight;
+
+        Entry(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    // accessOrder = true -> iterasi dimulai dari entri yang paling lama tidak dipakai
+    private final LinkedHashMap<String, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxWeight;
+    private final ToIntFunction<V> weigher;
+    private long weight;
+    private long version = Long.MIN_VALUE; // versi katalog milik semua entri saat ini
+
+    private long hits, misses, evictions, invalidations;
+
+    public QueryCache(long maxWeight, ToIntFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    // Hasil untuk key pada versi katalog tertentu; dihitung (di luar lock) jika belum ada / sudah basi.
+    // Versi harus dibaca sebelum menghitung, supaya hasil tidak pernah lebih tua dari versinya.
+    public V get(String key, long version, Supplier<V> compute) {
+        synchronized (this) {
+            if (version == this.version) {
+                Entry<V> e = map.get(key);
+                if (e != null) {
+                    hits++;
+                    return e.value;
+                }
+            }
+            misses++;
+        }
+        V value = compute.get();
+        put(key, version, value);
+        return value;
+    }
+
+    private synchronized void put(String key, long version, V value) {
+        if (version < this.version) return; // katalog sudah berubah lagi: jangan simpan hasil lama
+        if (version != this.version) {
+            if (!map.isEmpty()) invalidations++;
+            map.clear();
+            weight = 0;
+            this.version = version;
+        }
+        int w = Math.max(1, weigher.applyAsInt(value));
+        if (w > maxWeight) return; // terlalu besar untuk di-cache
+        Entry<V> old = map.put(key, new Entry<>(value, w));
+        if (old != null) weight -= old.weight;
+        weight += w;
+        Iterator<Map.Entry<String, Entry<V>>> it = map.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            Map.Entry<String, Entry<V>> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue; // entri baru tidak ikut dikeluarkan
+            weight -= eldest.getValue().weight;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        weight = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long total = hits + misses;
+        return String.format("%d entri, bobot %,d/%,d, hit %,d, miss %,d (%.1f%% hit), evict %,d, invalidasi %,d",
+                map.size(), weight, maxWeight, hits, misses, total == 0 ? 0.0 : hits * 100.0 / total, evictions, invalidations);
+    }
+}
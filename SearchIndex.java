@@ -0,0 +1,299 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// Indeks terbalik (inverted index) untuk pencarian teks atas nama, brand, dan deskripsi barang.
+// Setiap kata (token) menunjuk ke daftar dokumen + bobotnya; kecocokan di nama bernilai paling
+// tinggi, lalu brand, lalu deskripsi. Query memakai semantik AND (semua kata harus ada),
+// dimulai dari daftar terpendek, dan hasil teratas dipilih dengan heap berukuran k.
+// Barang yang dihapus hanya ditandai (tombstone); indeks dibangun ulang jika tombstone terlalu banyak.
+public class SearchIndex {
+    static final Locale ID = new Locale("id");
+    private static final float W_NAMA = 3f, W_BRAND = 2f, W_DESK = 1f;
+
+    // Kata umum bahasa Indonesia yang tidak berguna untuk pencarian
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "yang", "dan", "di", "ke", "dari", "untuk", "dengan", "adalah", "ini", "itu", "atau",
+            "pada", "juga", "lebih", "serta", "agar", "sehingga", "akan", "tidak", "bisa", "dapat",
+            "oleh", "sebagai", "dalam", "karena", "yg", "dgn", "tetap", "sangat", "saat", "setelah",
+            "sekaligus", "the", "and", "for", "with"));
+
+    // Daftar dokumen untuk satu kata, urut naik berdasarkan nomor dokumen
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] weights = new float[4];
+        int size = 0;
+        float maxWeight = 0; // batas atas bobot satu dokumen di daftar ini
+
+        void add(int doc, float w) {
+            if (size > 0 && docs[size - 1] == doc) { // kata yang sama muncul lagi di dokumen ini
+                weights[size - 1] += w;
+                maxWeight = Math.max(maxWeight, weights[size - 1]);
+                return;
+            }
+            maxWeight = Math.max(maxWeight, w);
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = w;
+            size++;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<Barang, Integer> docOf = new IdentityHashMap<>();
+    private Barang[] docs = new Barang[16];
+    private int docCount = 0;   // nomor dokumen berikutnya
+    private int removed = 0;    // jumlah tombstone
+
+    // Membangun ulang seluruh indeks dari daftar barang
+    public void rebuild(List<Barang> items) {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            docOf.clear();
+            docs = new Barang[Math.max(16, items.size())];
+            docCount = 0;
+            removed = 0;
+            for (Barang b : items) addLocked(b);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(Barang b) {
+        lock.writeLock().lock();
+        try {
+            addLocked(b);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Barang b) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(b);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replace(Barang old, Barang baru) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(old);
+            addLocked(baru);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Barang b) {
+        if (docOf.containsKey(b)) return;
+        if (docCount == docs.length) docs = Arrays.copyOf(docs, docCount * 2);
+        int doc = docCount++;
+        docs[doc] = b;
+        docOf.put(b, doc);
+        for (String t : tokenize(b.getNama())) posting(t).add(doc, W_NAMA);
+        for (String t : tokenize(b.getBrand())) posting(t).add(doc, W_BRAND);
+        for (String t : tokenize(b.getDeskripsi())) posting(t).add(doc, W_DESK);
+    }
+
+    private void removeLocked(Barang b) {
+        Integer doc = docOf.remove(b);
+        if (doc == null) return;
+        docs[doc] = null;
+        removed++;
+        // Terlalu banyak tombstone -> bangun ulang dari dokumen yang masih hidup
+        if (removed > 1024 && removed > docCount / 2) {
+            List<Barang> alive = new ArrayList<>(docCount - removed);
+            for (int i = 0; i < docCount; i++) if (docs[i] != null) alive.add(docs[i]);
+            terms.clear();
+            docOf.clear();
+            docs = new Barang[Math.max(16, alive.size())];
+            docCount = 0;
+            removed = 0;
+            for (Barang a : alive) addLocked(a);
+        }
+    }
+
+    private Postings posting(String term) {
+        return terms.computeIfAbsent(term, k -> new Postings());
+    }
+
+    // Mencari barang yang mengandung semua kata pada query, maksimal limit hasil,
+    // urut skor tertinggi (seri: urutan katalog)
+    public List<Barang> search(String query, int limit) {
+        return search(query, limit, null);
+    }
+
+    // Seperti search(query, limit), tetapi hanya barang yang lolos accept yang ikut diperingkat
+    // (mis. hasil filter facet), sehingga batas k diterapkan setelah filter, bukan sebelumnya
+    public List<Barang> search(String query, int limit, Predicate<Barang> accept) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) return Collections.emptyList();
+        lock.readLock().lock();
+        try {
+            Postings[] lists = postings(words);
+            if (lists == null) return Collections.emptyList(); // satu kata tidak ada -> kosong
+            // Skor tertinggi yang mungkin dicapai satu dokumen; jika k hasil sudah mencapai nilai ini,
+            // dokumen berikutnya (nomor lebih besar) tidak mungkin masuk -> berhenti lebih awal
+            float best = 0;
+            for (Postings p : lists) best += p.maxWeight;
+            long bestBits = Float.floatToIntBits(best);
+
+            // Heap minimum berisi k hasil terbaik sejauh ini
+            PriorityQueue<long[]> top = new PriorityQueue<>(Math.min(limit, 1024) + 1, (a, b) ->
+                    a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[1], a[1]));
+            int[] pos = new int[lists.length];
+            Postings first = lists[0];
+            outer:
+            for (int i = 0; i < first.size; i++) {
+                if (top.size() == limit && top.peek()[0] >= bestBits) break;
+                int doc = first.docs[i];
+                if (docs[doc] == null || (accept != null && !accept.test(docs[doc]))) continue;
+                float score = first.weights[i];
+                for (int l = 1; l < lists.length; l++) {
+                    Postings p = lists[l];
+                    int k = advance(p, pos[l], doc);
+                    pos[l] = k;
+                    if (k == p.size) break outer; // daftar lain habis
+                    if (p.docs[k] != doc) continue outer;
+                    score += p.weights[k];
+                }
+                long bits = Float.floatToIntBits(score); // float positif: urutan bit = urutan nilai
+                if (top.size() == limit) {
+                    long[] min = top.peek();
+                    if (bits < min[0] || (bits == min[0] && doc > min[1])) continue; // tidak masuk k teratas
+                    top.poll();
+                }
+                top.add(new long[]{bits, doc});
+            }
+
+            Barang[] out = new Barang[top.size()];
+            for (int i = out.length - 1; i >= 0; i--) out[i] = docs[(int) top.poll()[1]];
+            return Arrays.asList(out);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Semua barang yang mengandung semua kata pada query (tanpa batas, urut nomor dokumen),
+    // mis. untuk menghitung facet atas seluruh hasil pencarian
+    public List<Barang> matchAll(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) return Collections.emptyList();
+        lock.readLock().lock();
+        try {
+            Postings[] lists = postings(words);
+            if (lists == null) return Collections.emptyList();
+            List<Barang> out = new ArrayList<>();
+            int[] pos = new int[lists.length];
+            Postings first = lists[0];
+            outer:
+            for (int i = 0; i < first.size; i++) {
+                int doc = first.docs[i];
+                if (docs[doc] == null) continue;
+                for (int l = 1; l < lists.length; l++) {
+                    Postings p = lists[l];
+                    int k = advance(p, pos[l], doc);
+                    pos[l] = k;
+                    if (k == p.size) break outer;
+                    if (p.docs[k] != doc) continue outer;
+                }
+                out.add(docs[doc]);
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Daftar posting tiap kata, terpendek dulu; null jika ada kata yang tidak terindeks
+    private Postings[] postings(List<String> words) {
+        Postings[] lists = new Postings[words.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = terms.get(words.get(i));
+            if (lists[i] == null) return null;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        return lists;
+    }
+
+    // Posisi pertama di p dengan dokumen >= doc (galloping lalu binary search)
+    private static int advance(Postings p, int from, int doc) {
+        int step = 1, hi = from;
+        while (hi < p.size && p.docs[hi] < doc) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        int lo = from;
+        hi = Math.min(hi, p.size);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (p.docs[mid] < doc) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Huruf kecil (locale Indonesia), pisah di selain huruf/angka, buang stop word,
+    // dan potong akhiran "-nya" (teksturnya -> tekstur)
+    static List<String> tokenize(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isEmpty()) return out;
+        String s = text.toLowerCase(ID);
+        int start = -1;
+        for (int i = 0; i <= s.length(); i++) {
+            boolean word = i < s.length() && Character.isLetterOrDigit(s.charAt(i));
+            if (word && start < 0) start = i;
+            else if (!word && start >= 0) {
+                String t = normalize(s.substring(start, i));
+                if (t != null) out.add(t);
+                start = -1;
+            }
+        }
+        return out;
+    }
+
+    static String normalize(String t) {
+        if (t.length() > 5 && t.endsWith("nya")) t = t.substring(0, t.length() - 3);
+        if (t.length() < 2 || STOP_WORDS.contains(t)) return null;
+        return t;
+    }
+
+    // Apakah kata (sudah dinormalisasi) ada di indeks
+    public boolean contains(String term) {
+        lock.readLock().lock();
+        try {
+            return terms.containsKey(term);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Jumlah barang yang terindeks
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Jurnal perubahan stok (append-only) untuk barang.txt.
+// Setiap checkout cukup menambah satu baris "seq,id,delta" di akhir file, tanpa
+// menulis ulang seluruh katalog. Saat load, isi jurnal diputar ulang di atas snapshot
+// barang.txt; secara berkala jurnal dipadatkan kembali ke barang.txt lalu dikosongkan.
+// Penulisan lewat GroupCommitWriter: checkout yang bersamaan berbagi satu kali fsync.
+public class StockJournal {
+    private static final long COMMIT_WINDOW_MICROS = 2000; // jendela group commit
+
+    // Dipanggil untuk setiap entri jurnal yang dibaca saat replay
+    public interface Handler {
+        void apply(long seq, String id, int delta);
+    }
+
+    private final File file;
+    private final GroupCommitWriter writer;
+
+    // onFlushed dipanggil setiap kali satu batch entri selesai ditulis ke disk, dengan posisi
+    // byte batch tersebut di file jurnal
+    public StockJournal(File file, GroupCommitWriter.FlushListener onFlushed) {
+        this.file = file;
+        this.writer = new GroupCommitWriter(file.toPath(), COMMIT_WINDOW_MICROS, onFlushed);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // Menambah entri di akhir jurnal (satu keranjang sekaligus);
+    // future selesai setelah batch-nya tersimpan (fsync)
+    public CompletableFuture<Void> appendAll(long[] seqs, List<String> ids, List<Integer> deltas) {
+        List<String> lines = new ArrayList<>(seqs.length);
+        for (int i = 0; i < seqs.length; i++) lines.add(seqs[i] + "," + ids.get(i) + "," + deltas.get(i));
+        return writer.submitAll(lines);
+    }
+
+    public void setDurability(Durability durability) {
+        writer.setDurability(durability);
+    }
+
+    // true jika masih ada entri milik proses ini yang belum ditulis
+    public boolean hasPending() {
+        return writer.hasPending();
+    }
+
+    // Memutar ulang entri mulai dari posisi byte 'from'.
+    // Baris terakhir yang belum lengkap (belum ada newline) dibiarkan untuk replay berikutnya.
+    // Mengembalikan posisi byte setelah baris lengkap terakhir yang diproses.
+    public long replay(long from, Handler handler) throws IOException {
+        if (!file.exists()) return 0;
+        long done = from;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            long pos = 0;
+            while (pos < from) {
+                long n = in.skip(from - pos);
+                if (n <= 0) return pos; // file lebih pendek dari posisi terakhir
+                pos += n;
+            }
+            ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+            int c;
+            while ((c = in.read()) != -1) {
+                pos++;
+                if (c == '\n') {
+                    parseLine(line.toString("UTF-8"), handler);
+                    line.reset();
+                    done = pos;
+                } else {
+                    line.write(c);
+                }
+            }
+        }
+        return done;
+    }
+
+    // Mengosongkan jurnal (dipanggil setelah isinya sudah masuk ke snapshot)
+    public void clear() {
+        if (file.exists() && !file.delete())
+            System.err.println("Gagal mengosongkan jurnal stok: " + file.getPath());
+    }
+
+    // Format baris: seq,id,delta (ID diambil di antara koma pertama dan terakhir)
+    private static void parseLine(String line, Handler handler) {
+        String l = line.trim();
+        if (l.isEmpty()) return;
+        int first = l.indexOf(',');
+        int last = l.lastIndexOf(',');
+        if (first < 0 || last <= first) {
+            System.err.println("Baris jurnal stok tidak valid dilewati: " + l);
+            return;
+        }
+        try {
+            long seq = Long.parseLong(l.substring(0, first).trim());
+            int delta = Integer.parseInt(l.substring(last + 1).trim());
+            handler.apply(seq, l.substring(first + 1, last), delta);
+        } catch (NumberFormatException e) {
+            System.err.println("Baris jurnal stok tidak valid dilewati: " + l);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+// Penghitung stok satu barang berbasis CAS (tanpa lock).
+// Mode normal memakai satu int. Untuk barang "panas" (flash sale) stok bisa dipecah ke beberapa
+// shard sehingga pembeli di core berbeda tidak berebut cache line yang sama.
+// Stok tidak pernah bisa diambil melebihi yang tersedia (tidak ada oversell).
+public class StokCounter {
+    private static final AtomicIntegerFieldUpdater<StokCounter> VALUE =
+            AtomicIntegerFieldUpdater.newUpdater(StokCounter.class, "value");
+    private static final int PAD = 16; // jarak antar shard (16 int = 64 byte) agar tidak false sharing
+
+    private volatile int value;                 // dipakai jika tidak di-shard
+    private volatile AtomicIntegerArray shards; // null = tidak di-shard
+
+    public StokCounter(int initial) {
+        this.value = initial;
+    }
+
+    // Total stok saat ini
+    public int get() {
+        AtomicIntegerArray s = shards;
+        if (s == null) return value;
+        int sum = 0;
+        for (int i = 0; i < s.length(); i += PAD) sum += s.get(i);
+        return sum;
+    }
+
+    // Mengganti nilai stok. Tidak atomik terhadap tryTake yang berjalan bersamaan,
+    // jadi hanya dipanggil saat load/edit (di bawah lock struktur katalog).
+    public void set(int v) {
+        AtomicIntegerArray s = shards;
+        if (s == null) value = v;
+        else distribute(s, v);
+    }
+
+    // Mengambil qty unit jika tersedia; false jika stok tidak cukup
+    public boolean tryTake(int qty) {
+        if (qty <= 0) return false;
+        AtomicIntegerArray s = shards;
+        if (s == null) {
+            while (true) {
+                int cur = value;
+                if (cur < qty) return false;
+                if (VALUE.compareAndSet(this, cur, cur - qty)) return true;
+            }
+        }
+        // Jalur cepat: ambil dari shard milik thread ini saja
+        int idx = home(s);
+        while (true) {
+            int cur = s.get(idx);
+            if (cur < qty) break;
+            if (s.compareAndSet(idx, cur, cur - qty)) return true;
+        }
+        return takeSlow(s, qty);
+    }
+
+    // Jalur lambat: kumpulkan dari semua shard; jika totalnya kurang, kembalikan semua yang sudah diambil.
+    // Disinkronkan agar dua pengambil lambat tidak saling "menahan" unit lalu sama-sama gagal.
+    private synchronized boolean takeSlow(AtomicIntegerArray s, int qty) {
+        int[] taken = new int[s.length() / PAD];
+        int need = qty;
+        for (int i = 0; i < taken.length && need > 0; i++) {
+            int idx = i * PAD;
+            while (true) {
+                int cur = s.get(idx);
+                int t = Math.min(cur, need);
+                if (t <= 0) break;
+                if (s.compareAndSet(idx, cur, cur - t)) {
+                    taken[i] = t;
+                    need -= t;
+                    break;
+                }
+            }
+        }
+        if (need == 0) return true;
+        for (int i = 0; i < taken.length; i++)
+            if (taken[i] > 0) s.addAndGet(i * PAD, taken[i]);
+        return false;
+    }
+
+    // Menambah (atau mengurangi, jika negatif) stok tanpa validasi, mis. untuk rollback atau replay jurnal
+    public void add(int delta) {
+        AtomicIntegerArray s = shards;
+        if (s == null) VALUE.addAndGet(this, delta);
+        else s.addAndGet(home(s), delta);
+    }
+
+    // Memecah stok ke n shard (n <= 1 menggabungkan kembali ke satu int).
+    // Dipanggil saat tidak ada tryTake yang berjalan (di bawah lock struktur katalog).
+    public synchronized void setShards(int n) {
+        int total = get();
+        if (n <= 1) {
+            value = total;
+            shards = null;
+        } else {
+            AtomicIntegerArray s = new AtomicIntegerArray(n * PAD);
+            distribute(s, total);
+            shards = s;
+        }
+    }
+
+    public int getShardCount() {
+        AtomicIntegerArray s = shards;
+        return s == null ? 1 : s.length() / PAD;
+    }
+
+    // Membagi total stok rata ke semua shard
+    private static void distribute(AtomicIntegerArray s, int total) {
+        int n = s.length() / PAD;
+        int base = total / n, rest = total % n;
+        for (int i = 0; i < n; i++) s.set(i * PAD, base + (i < rest ? 1 : 0));
+    }
+
+    private static int home(AtomicIntegerArray s) {
+        int n = s.length() / PAD;
+        return (int) (Thread.currentThread().getId() % n) * PAD;
+    }
+}
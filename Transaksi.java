@@ -1,34 +1,35 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 public class Transaksi {
     private String id;
     private Customer customer;
-    private List<Barang> barangList;
+    private List<LineItem> items; // satu baris per barang (id, harga saat checkout, qty)
     private double total;
+    private int totalQty;
     private long timestamp;
     
     // Field Status & Pembayaran
     private String status; 
     private String metodePembayaran; // [BARU] Menyimpan nama metode bayar (QRIS/COD/dll)
 
-    public Transaksi(Customer customer, List<Barang> items) {
+    public Transaksi(Customer customer, List<LineItem> items) {
         this.id = UUID.randomUUID().toString().substring(0, 8).toUpperCase(); 
         this.customer = customer;
-        this.barangList = (items == null) ? new ArrayList<>() : new ArrayList<>(items);
+        this.items = (items == null) ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(items));
         this.timestamp = System.currentTimeMillis();
-        this.total = calculateTotal();
+        calculateTotal(); // dihitung sekali; baris transaksi tidak berubah lagi
         this.status = "Sedang Diproses"; 
         this.metodePembayaran = "-"; // Default
     }
 
-    private double calculateTotal() {
-        double sum = 0.0;
-        for (Barang b : barangList) {
-            if (b != null) sum += b.getHarga();
+    private void calculateTotal() {
+        for (LineItem li : items) {
+            total += li.getSubtotal();
+            totalQty += li.getQty();
         }
-        return sum;
     }
 
     // [BARU] Getter & Setter Metode Pembayaran
@@ -42,8 +43,9 @@ public class Transaksi {
     // Getters Lainnya
     public String getId() { return id; }
     public Customer getCustomer() { return customer; }
-    public List<Barang> getBarangList() { return new ArrayList<>(barangList); }
+    public List<LineItem> getItems() { return items; } // read-only, tanpa salinan
     public double getTotal() { return total; }
+    public int getTotalQty() { return totalQty; }
     public long getTimestamp() { return timestamp; }
     
     @Override